@@ -1,13 +1,35 @@
 package dev.doeshing.koukeNekoNametag;
 
+import dev.doeshing.koukeNekoNametag.commands.AsyncTabCompleteListener;
+import dev.doeshing.koukeNekoNametag.commands.BrigadierCommands;
 import dev.doeshing.koukeNekoNametag.commands.ReloadCommand;
 import dev.doeshing.koukeNekoNametag.commands.TagCommand;
+import dev.doeshing.koukeNekoNametag.commands.TagCompletionProvider;
+import dev.doeshing.koukeNekoNametag.core.AdminPermissionCache;
 import dev.doeshing.koukeNekoNametag.core.CommandSystem;
+import dev.doeshing.koukeNekoNametag.core.DataFolderWatcher;
 import dev.doeshing.koukeNekoNametag.core.MessageManager;
+import dev.doeshing.koukeNekoNametag.core.PlayerIdResolver;
+import dev.doeshing.koukeNekoNametag.core.PlayerNameIndex;
+import dev.doeshing.koukeNekoNametag.core.RuntimeBundle;
+import dev.doeshing.koukeNekoNametag.core.StartupTimings;
+import dev.doeshing.koukeNekoNametag.core.job.JobManager;
 import dev.doeshing.koukeNekoNametag.core.lang.LanguageManager;
 import dev.doeshing.koukeNekoNametag.core.tag.*;
+import dev.doeshing.koukeNekoNametag.core.template.CommandTemplateRegistry;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * KoukeNeko 標籤外掛主類別
  * 
@@ -18,26 +40,52 @@ import org.bukkit.plugin.java.JavaPlugin;
  */
 public final class KoukeNekoNametag extends JavaPlugin {
 
+    // 指令名稱與別名 (第一個為指令名稱)
+    private static final List<String> MAIN_COMMAND_LABELS = List.of("koukeneko", "kn");
+    private static final List<String> TAG_COMMAND_LABELS = List.of("tag", "標籤", "tags");
+
     // 核心服務組件 - DIP: 依賴抽象介面
     private MessageManager messageManager;
     private CommandSystem commandSystem;
     private LanguageManager languageManager;
+    private CommandTemplateRegistry commandTemplates;
+    private PlayerNameIndex playerNameIndex;
+    private PlayerIdResolver playerIdResolver;
+    private AdminPermissionCache adminPermissionCache;
+    private TagCompletionProvider completionProvider;
+    private JobManager jobManager;
+    private DataFolderWatcher fileWatcher;
+    
+    // 目前使用中的設定、訊息與指令樣板 - 重新載入時以單一參考寫入整組替換
+    private volatile RuntimeBundle runtime;
+    private final Object runtimeBuildLock = new Object(); // 依序建立設定組，確保替換順序與建立順序相同
+    private volatile FileConfiguration startupSettings; // 設定組建立完成前，啟動執行緒讀取的設定
+    private StartupTimings startupTimings;
     
     // 標籤系統組件 - SRP: 分離不同責任
     private TagRepository tagRepository;
     private TagPermissionService tagPermissionService;
     private TagDisplayService tagDisplayService;
+    private AvailableTagCache availableTagCache;
+    private ActiveTagStore activeTagStore;
     private TagManager tagManager;
     private TagMenu tagMenu;
+    private TagMenuItemCache tagMenuItemCache;
+    private PendingGrantQueue pendingGrantQueue;
 
     @Override
     public void onEnable() {
+        this.startupTimings = new StartupTimings(getLogger());
         try {
             // SRP: 委派給專門的方法處理初始化
             initializeConfiguration();
-            initializeCoreServices();
-            initializeTagSystem();
-            registerCommands();
+            startupTimings.run("services", () -> {
+                initializeCoreServices();
+                initializeTagSystem();
+            });
+            startupTimings.run("commands", this::registerCommands);
+            startFileWatcher();
+            startupTimings.finish();
             
             getLogger().info("KoukeNeko 標籤系統已啟用！");
         } catch (Exception e) {
@@ -49,11 +97,52 @@ public final class KoukeNekoNametag extends JavaPlugin {
     }
     
     /**
-     * 初始化配置
+     * 初始化配置、語言檔與標籤目錄
      * SRP: 專門負責配置的初始化
+     * 語言檔與標籤目錄互不依賴，在啟動執行緒上同時解析，並在註冊指令前等待兩者完成；
+     * 預設檔案由需要它的階段自行解壓，避免兩個執行緒同時寫入同一個檔案
      */
-    private void initializeConfiguration() {
-        saveDefaultConfig();
+    private void initializeConfiguration() throws Exception {
+        // 語言與儲存方式都由 config.yml 決定，必須先載入
+        FileConfiguration settings = startupTimings.time("config", () -> {
+            saveDefaultConfig();
+            return RuntimeBundle.loadSettings(this);
+        });
+        this.startupSettings = settings;
+        this.languageManager = new LanguageManager(this);
+        
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2, task -> {
+            Thread thread = new Thread(task, "KoukeNeko-Startup-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletableFuture<RuntimeBundle> language = startupTimings.timeAsync(
+                    "language", () -> RuntimeBundle.build(this, settings), executor);
+            CompletableFuture<TagRepository> tags = startupTimings.timeAsync(
+                    "tags", this::createRepository, executor);
+            
+            // 先取得儲存庫，語言檔失敗時停用流程仍能關閉它
+            this.tagRepository = joinStartupPhase(tags, "無法載入標籤");
+            this.runtime = joinStartupPhase(language, "無法載入設定檔或語言檔");
+        } finally {
+            executor.shutdown();
+            this.startupSettings = null;
+        }
+        languageManager.persist(runtime.getLanguage());
+    }
+    
+    /**
+     * 等待啟動階段完成，失敗時以階段的原始例外作為原因
+     */
+    private static <T> T joinStartupPhase(CompletableFuture<T> phase, String message) {
+        try {
+            return phase.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new IllegalStateException(message + ": " + cause.getMessage(), cause);
+        }
     }
     
     /**
@@ -61,9 +150,13 @@ public final class KoukeNekoNametag extends JavaPlugin {
      * SRP: 專門負責核心服務組件的初始化
      */
     private void initializeCoreServices() {
-        this.languageManager = new LanguageManager(this);
         this.messageManager = new MessageManager(this);
         this.commandSystem = new CommandSystem(this);
+        this.commandTemplates = new CommandTemplateRegistry(this);
+        this.playerNameIndex = new PlayerNameIndex(this);
+        this.playerIdResolver = new PlayerIdResolver(this);
+        this.adminPermissionCache = new AdminPermissionCache(this);
+        this.jobManager = new JobManager(this);
     }
     
     /**
@@ -72,16 +165,125 @@ public final class KoukeNekoNametag extends JavaPlugin {
      * DIP: 注入具體實作而非在TagManager內部建立
      */
     private void initializeTagSystem() {
-        // 建立具體實作物件 - DIP: 這裡是唯一依賴具體實作的地方
-        this.tagRepository = new FileTagRepository(this);
-        this.tagPermissionService = new CommandTagPermissionService(this);
-        this.tagDisplayService = new CommandTagDisplayService(this);
+        // 建立具體實作物件 - DIP: 這裡是唯一依賴具體實作的地方 (儲存庫已在啟動執行緒上建立)
+        this.tagPermissionService = createPermissionService();
+        this.tagDisplayService = createDisplayService();
+        this.availableTagCache = new AvailableTagCache(this);
+        this.activeTagStore = new ActiveTagStore(this);
+        registerPermissionListeners();
         
         // 組裝 TagManager - DIP: 注入所有依賴
-        this.tagManager = new TagManager(this, tagRepository, tagPermissionService, tagDisplayService);
+        this.tagManager = new TagManager(this, tagRepository, tagPermissionService, tagDisplayService,
+                availableTagCache, activeTagStore);
+        this.pendingGrantQueue = new PendingGrantQueue(this, tagManager);
         
         // 組裝 TagMenu
-        this.tagMenu = new TagMenu(this, tagManager);
+        this.tagMenuItemCache = new TagMenuItemCache(this);
+        this.tagMenu = new TagMenu(this, tagManager, tagMenuItemCache);
+    }
+
+    /**
+     * 依設定建立標籤儲存庫
+     * OCP: 新增儲存方式只需要在這裡加入選項
+     * 資料庫無法開啟時退回檔案儲存，避免外掛無法啟動
+     */
+    private TagRepository createRepository() {
+        String type = getConfig().getString("storage.type", "yaml").toLowerCase(Locale.ROOT);
+        
+        switch (type) {
+            case "yaml":
+                return new FileTagRepository(this);
+            case "sqlite":
+                try {
+                    return new SqliteTagRepository(this);
+                } catch (IllegalStateException e) {
+                    getLogger().severe(e.getMessage() + "，改用檔案儲存");
+                    return new FileTagRepository(this);
+                }
+            case "sharded":
+                return new ShardedTagRepository(this);
+            default:
+                getLogger().warning("未知的儲存類型: " + type + "，改用檔案儲存");
+                return new FileTagRepository(this);
+        }
+    }
+
+    /**
+     * 依設定建立權限服務
+     * OCP: 新增權限服務實作只需要在這裡加入選項
+     * 設定為 luckperms 或 auto 但伺服器沒有 LuckPerms 時，退回指令式權限服務
+     */
+    private TagPermissionService createPermissionService() {
+        String type = getConfig().getString("permission.service", "auto").toLowerCase(Locale.ROOT);
+        boolean luckPermsAvailable = isLuckPermsAvailable();
+        
+        switch (type) {
+            case "command":
+                return new CommandTagPermissionService(commandTemplates);
+            case "luckperms":
+                if (!luckPermsAvailable) {
+                    getLogger().warning("找不到 LuckPerms，改用指令式權限服務");
+                    return new CommandTagPermissionService(commandTemplates);
+                }
+                return new LuckPermsTagPermissionService(this);
+            case "auto":
+                return luckPermsAvailable
+                        ? new LuckPermsTagPermissionService(this)
+                        : new CommandTagPermissionService(commandTemplates);
+            default:
+                getLogger().warning("未知的權限服務類型: " + type + "，改用自動選擇");
+                return luckPermsAvailable
+                        ? new LuckPermsTagPermissionService(this)
+                        : new CommandTagPermissionService(commandTemplates);
+        }
+    }
+    
+    /**
+     * 依設定建立顯示服務
+     * OCP: 新增顯示服務實作只需要在這裡加入選項
+     */
+    private TagDisplayService createDisplayService() {
+        String type = getConfig().getString("display.service", "command").toLowerCase(Locale.ROOT);
+        
+        switch (type) {
+            case "command":
+                return new CommandTagDisplayService(commandTemplates);
+            case "scoreboard":
+                return new ScoreboardTagDisplayService(this, tagRepository);
+            case "text_display":
+                return new TextDisplayTagDisplayService(this);
+            default:
+                getLogger().warning("未知的顯示服務類型: " + type + "，改用指令式顯示服務");
+                return new CommandTagDisplayService(commandTemplates);
+        }
+    }
+    
+    /**
+     * 啟動標籤檔案與語言檔的熱重載 (需在設定中啟用)
+     */
+    private void startFileWatcher() {
+        if (getConfig().getBoolean("hot_reload.enabled", false)) {
+            this.fileWatcher = new DataFolderWatcher(this);
+            fileWatcher.start();
+        }
+    }
+    
+    /**
+     * 註冊權限變更監聽器
+     * 只有在安裝 LuckPerms 時才訂閱其事件，避免載入不存在的類別
+     */
+    private void registerPermissionListeners() {
+        if (isLuckPermsAvailable()) {
+            LuckPermsCacheInvalidator.register(this, availableTagCache, adminPermissionCache);
+            getLogger().info("已訂閱 LuckPerms 權限變更事件");
+        }
+    }
+    
+    /**
+     * 檢查伺服器是否安裝並啟用 LuckPerms
+     */
+    public boolean isLuckPermsAvailable() {
+        return getServer().getPluginManager().isPluginEnabled("LuckPerms");
     }
 
     @Override
@@ -101,8 +303,30 @@ public final class KoukeNekoNametag extends JavaPlugin {
      * SRP: 專門負責資源清理
      */
     private void cleanupResources() {
-        // 注意: 由於重構後 TagManager 不再直接負責儲存，
-        // 這裡如果需要的話可以直接呼叫 tagRepository.save() 方法
+        // 先停止熱重載，避免停用期間重新載入
+        if (fileWatcher != null) {
+            fileWatcher.stop();
+        }
+        
+        // 停止尚未完成的背景工作
+        if (jobManager != null) {
+            jobManager.shutdown();
+        }
+        
+        if (tagDisplayService != null) {
+            tagDisplayService.shutdown();
+        }
+        
+        // 在時間上限內將尚未寫回的標籤修改、待處理權限與啟用標籤寫入檔案
+        if (pendingGrantQueue != null) {
+            pendingGrantQueue.close();
+        }
+        if (activeTagStore != null) {
+            activeTagStore.close();
+        }
+        if (tagRepository != null) {
+            tagRepository.close();
+        }
     }
 
     /**
@@ -110,22 +334,42 @@ public final class KoukeNekoNametag extends JavaPlugin {
      * SRP: 專門負責指令的註冊
      */
     private void registerCommands() {
-        registerReloadCommand();
+        this.completionProvider = new TagCompletionProvider(this, tagManager, adminPermissionCache);
+        ReloadCommand reloadCommand = new ReloadCommand(this, completionProvider);
+        
+        if (getConfig().getBoolean("commands.brigadier", true) && CommandSystem.isBrigadierAvailable()) {
+            registerBrigadierCommands(reloadCommand);
+            return;
+        }
+        
+        // 舊版伺服器或停用 Brigadier 時使用反射註冊
+        registerReloadCommand(reloadCommand);
         registerTagCommand();
+        registerAsyncTabCompletion();
+    }
+    
+    /**
+     * 透過 Paper 生命週期 API 註冊 Brigadier 指令樹
+     * 語法檢查與靜態建議由客戶端處理
+     */
+    private void registerBrigadierCommands(ReloadCommand reloadCommand) {
+        new BrigadierCommands(this, tagManager, tagMenu, reloadCommand, completionProvider)
+                .register(MAIN_COMMAND_LABELS, TAG_COMMAND_LABELS);
+        getLogger().info("已透過 Brigadier 註冊指令: " + MAIN_COMMAND_LABELS.get(0) + ", " + TAG_COMMAND_LABELS.get(0));
     }
     
     /**
      * 註冊重載指令
      * SRP: 專門負責重載指令的註冊
      */
-    private void registerReloadCommand() {
+    private void registerReloadCommand(ReloadCommand reloadCommand) {
         commandSystem.registerCommand(
-                "koukeneko",
-                new ReloadCommand(this),
+                MAIN_COMMAND_LABELS.get(0),
+                reloadCommand,
                 "koukeneko.admin",
                 "KoukeNeko 插件主指令",
-                "/koukeneko reload",
-                "kn"
+                "/koukeneko <reload|stats>",
+                aliasesOf(MAIN_COMMAND_LABELS)
         );
     }
     
@@ -134,16 +378,29 @@ public final class KoukeNekoNametag extends JavaPlugin {
      * SRP: 專門負責標籤指令的註冊
      */
     private void registerTagCommand() {
-        TagCommand tagCommand = new TagCommand(this, tagManager, tagMenu);
+        TagCommand tagCommand = new TagCommand(this, tagManager, tagMenu, completionProvider);
         commandSystem.registerCommand(
-                "tag",
+                TAG_COMMAND_LABELS.get(0),
                 tagCommand,
                 null, // 不需要權限，具體權限檢查在指令處理中
                 "標籤系統指令",
                 "/tag [參數]",
-                "標籤", "tags"
+                aliasesOf(TAG_COMMAND_LABELS)
         );
     }
+    
+    /**
+     * 註冊非同步自動完成
+     * 指令本身的 onTabComplete 保留為備援路徑
+     */
+    private void registerAsyncTabCompletion() {
+        getServer().getPluginManager().registerEvents(new AsyncTabCompleteListener(
+                completionProvider, getName(), TAG_COMMAND_LABELS, MAIN_COMMAND_LABELS), this);
+    }
+    
+    private static String[] aliasesOf(List<String> labels) {
+        return labels.subList(1, labels.size()).toArray(new String[0]);
+    }
 
     public MessageManager getMessageManager() {
         return messageManager;
@@ -156,49 +413,184 @@ public final class KoukeNekoNametag extends JavaPlugin {
     public LanguageManager getLanguageManager() {
         return languageManager;
     }
+    
+    public TagRepository getTagRepository() {
+        return tagRepository;
+    }
+    
+    public TagMenuItemCache getTagMenuItemCache() {
+        return tagMenuItemCache;
+    }
+    
+    public CommandTemplateRegistry getCommandTemplates() {
+        return commandTemplates;
+    }
+    
+    public PlayerNameIndex getPlayerNameIndex() {
+        return playerNameIndex;
+    }
+    
+    public PlayerIdResolver getPlayerIdResolver() {
+        return playerIdResolver;
+    }
+    
+    public JobManager getJobManager() {
+        return jobManager;
+    }
+    
+    public PendingGrantQueue getPendingGrantQueue() {
+        return pendingGrantQueue;
+    }
+    
+    public DataFolderWatcher getFileWatcher() {
+        return fileWatcher;
+    }
+
+    public StartupTimings getStartupTimings() {
+        return startupTimings;
+    }
+
+    public RuntimeBundle getRuntime() {
+        return runtime;
+    }
 
     /**
-     * 重新載入外掛設定
-     * SRP: 專門負責協調所有組件的重載
+     * 獲取目前使用中的設定
+     * 回傳目前設定組中的設定，讀取端不會看到重新載入到一半的內容
+     */
+    @Override
+    public FileConfiguration getConfig() {
+        RuntimeBundle current = runtime;
+        if (current != null) {
+            return current.getSettings();
+        }
+        FileConfiguration settings = startupSettings;
+        return settings != null ? settings : super.getConfig();
+    }
+
+    /**
+     * 在背景重新載入設定、語言檔與標籤
+     * 新的設定組完整建立並驗證後才在主執行緒替換；失敗時保留原本的設定組與標籤
+     *
+     * @return 全部重新載入完成時完成的 Future，設定組或標籤資料載入失敗時以例外完成
+     */
+    public CompletableFuture<Void> reloadAsync() {
+        // 標籤設定 (權限前綴、檔案位置) 屬於新的設定組，需在替換後才重新解析
+        return rebuildRuntime(true).thenRunAsync(() -> {
+            if (!tagManager.reloadInBackground()) {
+                // 讓指令回報 reload.failed，而不是在標籤仍是舊內容時回報成功
+                throw new CompletionException(new InvalidConfigurationException("標籤資料無法完整載入，已保留目前的標籤"));
+            }
+        }, asyncExecutor());
+    }
+
+    /**
+     * 在背景建立新的設定組並在主執行緒替換
+     *
+     * @param reloadSettings 是否重新讀取 config.yml (只有語言檔變更時為 false)
+     * @return 新的設定組生效時完成的 Future，建立失敗時以例外完成
+     */
+    public CompletableFuture<Void> rebuildRuntime(boolean reloadSettings) {
+        FileConfiguration currentSettings = getConfig();
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        getServer().getScheduler().runTaskAsynchronously(this, () -> {
+            try {
+                synchronized (runtimeBuildLock) {
+                    FileConfiguration settings = reloadSettings ? RuntimeBundle.loadSettings(this) : currentSettings;
+                    RuntimeBundle bundle = RuntimeBundle.build(this, settings);
+                    getServer().getScheduler().runTask(this, () -> {
+                        applyRuntime(bundle);
+                        result.complete(null);
+                    });
+                }
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 替換目前的設定組並通知依賴設定的組件
+     * 只能在主執行緒呼叫
+     */
+    private void applyRuntime(RuntimeBundle bundle) {
+        this.runtime = bundle;
+        
+        // SRP: 委派給專門的方法處理各種重載
+        reloadMessageSettings();
+        reloadCompletionSettings();
+        reloadJobSettings();
+        
+        // 補上缺少訊息的語言檔在新內容生效後才寫回
+        getServer().getScheduler().runTaskAsynchronously(this, () -> languageManager.persist(bundle.getLanguage()));
+        getLogger().info("設定與語言檔已重新載入");
+    }
+
+    private Executor asyncExecutor() {
+        return task -> getServer().getScheduler().runTaskAsynchronously(this, task);
+    }
+
+    /**
+     * 重新載入外掛設定 (同步版本)
+     * 保留給在主執行緒呼叫 JavaPlugin#reloadConfig 的程式；指令使用 {@link #reloadAsync()}
      */
     @Override
     public void reloadConfig() {
-        try {
+        if (runtime == null) {
+            // 啟動期間由 JavaPlugin#getConfig 呼叫
             super.reloadConfig();
-            
-            // SRP: 委派給專門的方法處理各種重載
-            reloadLanguageSettings();
-            reloadMessageSettings();
+            return;
+        }
+        
+        try {
+            applyRuntime(RuntimeBundle.build(this, RuntimeBundle.loadSettings(this)));
             reloadTagSettings();
-            
             getLogger().info("所有設定已重新載入");
 
         } catch (Exception e) {
-            getLogger().severe("重新載入設定檔時發生錯誤: " + e.getMessage());
+            getLogger().severe("重新載入設定檔時發生錯誤，保留原本的設定: " + e.getMessage());
             getLogger().log(java.util.logging.Level.SEVERE, "異常堆疊追蹤: ", e); // 更強健的日誌記錄方式
         }
     }
     
-    /**
-     * 重載語言設定
-     * SRP: 專門負責語言設定的重載
-     */
-    private void reloadLanguageSettings() {
-        if (languageManager != null) {
-            languageManager.reload();
-            getLogger().info("語言設定已重新載入");
-        }
-    }
-    
     /**
      * 重載訊息設定
      * SRP: 專門負責訊息設定的重載
      */
     private void reloadMessageSettings() {
         if (messageManager != null) {
-            messageManager.loadPrefix();
+            messageManager.reload();
             getLogger().info("訊息前綴已重新載入");
         }
+        if (tagMenuItemCache != null) {
+            // 選單物品包含語言檔文字，需要重新建立
+            tagMenuItemCache.invalidateAll();
+        }
+    }
+    
+    /**
+     * 重載自動完成設定
+     * SRP: 專門負責管理員旗標與建議數量上限的重新計算
+     */
+    private void reloadCompletionSettings() {
+        if (adminPermissionCache != null) {
+            // 管理員權限節點可能已變更
+            adminPermissionCache.reload();
+        }
+        if (completionProvider != null) {
+            completionProvider.reload();
+        }
+    }
+    
+    /**
+     * 重載背景工作設定
+     * SRP: 專門負責時間預算與進度回報間隔的重新讀取
+     */
+    private void reloadJobSettings() {
+        if (jobManager != null) {
+            jobManager.reload();
+        }
     }
     
     /**
@@ -0,0 +1,81 @@
+package dev.doeshing.koukeNekoNametag.commands;
+
+import com.destroystokyo.paper.event.server.AsyncTabCompleteEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 非同步指令自動完成監聽器
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責辨識本外掛的指令並把輸入交給自動完成提供者
+ * - DIP (依賴反轉原則): 依賴 TagCompletionProvider 而非自行產生建議
+ *
+ * 在 Paper 的非同步自動完成事件中直接回傳建議並標記為已處理，
+ * 伺服器就不會再回到主執行緒呼叫指令的 onTabComplete。
+ */
+public class AsyncTabCompleteListener implements Listener {
+
+    private final TagCompletionProvider completionProvider;
+    private final Set<String> tagLabels;
+    private final Set<String> mainLabels;
+
+    /**
+     * @param completionProvider 自動完成提供者
+     * @param namespace 指令命名空間 (例如外掛名稱)，同時接受 namespace:label 形式
+     * @param tagLabels /tag 的名稱與別名
+     * @param mainLabels /koukeneko 的名稱與別名
+     */
+    public AsyncTabCompleteListener(TagCompletionProvider completionProvider, String namespace,
+                                    List<String> tagLabels, List<String> mainLabels) {
+        this.completionProvider = completionProvider;
+        this.tagLabels = buildLabels(namespace, tagLabels);
+        this.mainLabels = buildLabels(namespace, mainLabels);
+    }
+
+    private static Set<String> buildLabels(String namespace, List<String> labels) {
+        String prefix = namespace.toLowerCase(Locale.ROOT) + ":";
+        Set<String> result = new HashSet<>();
+        for (String label : labels) {
+            String lower = label.toLowerCase(Locale.ROOT);
+            result.add(lower);
+            result.add(prefix + lower);
+        }
+        return Set.copyOf(result);
+    }
+
+    @EventHandler(ignoreCancelled = true)
+    public void onAsyncTabComplete(AsyncTabCompleteEvent event) {
+        if (!event.isCommand() || event.isHandled()) {
+            return;
+        }
+
+        String buffer = event.getBuffer();
+        int start = buffer.startsWith("/") ? 1 : 0;
+        int space = buffer.indexOf(' ', start);
+        if (space < 0) {
+            // 仍在輸入指令名稱，交給伺服器處理
+            return;
+        }
+
+        String label = buffer.substring(start, space).toLowerCase(Locale.ROOT);
+        boolean tagCommand = tagLabels.contains(label);
+        if (!tagCommand && !mainLabels.contains(label)) {
+            return;
+        }
+
+        // 與 Bukkit 相同的切分方式: 結尾的空白代表正在輸入一個空的參數
+        String[] args = buffer.substring(space + 1).split(" ", -1);
+        List<String> completions = tagCommand
+                ? completionProvider.completeTag(event.getSender(), args)
+                : completionProvider.completeMain(event.getSender(), args);
+
+        event.setCompletions(completions);
+        event.setHandled(true);
+    }
+}
@@ -0,0 +1,233 @@
+package dev.doeshing.koukeNekoNametag.commands;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.suggestion.SuggestionProvider;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.lang.Placeholders;
+import dev.doeshing.koukeNekoNametag.core.tag.TagManager;
+import dev.doeshing.koukeNekoNametag.core.tag.TagMenu;
+import io.papermc.paper.command.brigadier.CommandSourceStack;
+import io.papermc.paper.command.brigadier.Commands;
+import io.papermc.paper.plugin.lifecycle.event.types.LifecycleEvents;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+
+/**
+ * Brigadier 指令樹註冊器
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責宣告 /tag 與 /koukeneko 的指令樹並轉接到既有的指令處理器
+ * - DIP (依賴反轉原則): 實際操作仍委派給 CommandHandler 與 ReloadCommand
+ *
+ * 指令語法與靜態的子指令名稱會送到客戶端，由客戶端完成語法檢查與建議，
+ * 只有標籤ID與玩家名稱的建議需要詢問伺服器。
+ * 玩家參數為單一文字 (名稱或UUID)，以便指定離線玩家。
+ *
+ * 注意: 只有在伺服器提供 Paper 生命週期指令 API 時才可以載入此類別，
+ * 請先以 CommandSystem#isBrigadierAvailable 檢查。
+ */
+public final class BrigadierCommands {
+
+    private final KoukeNekoNametag plugin;
+    private final TagMenu tagMenu;
+    private final ReloadCommand reloadCommand;
+    private final TagCompletionProvider completionProvider;
+    private final CreateTagCommandHandler createHandler;
+    private final RemoveTagCommandHandler removeHandler;
+    private final PlayerTagCommandHandler playerHandler;
+    private final BulkPermissionCommandHandler bulkHandler;
+    private final JobCommandHandler jobHandler;
+
+    public BrigadierCommands(KoukeNekoNametag plugin, TagManager tagManager, TagMenu tagMenu,
+                             ReloadCommand reloadCommand, TagCompletionProvider completionProvider) {
+        this.plugin = plugin;
+        this.tagMenu = tagMenu;
+        this.reloadCommand = reloadCommand;
+        this.completionProvider = completionProvider;
+        this.createHandler = new CreateTagCommandHandler(plugin, tagManager);
+        this.removeHandler = new RemoveTagCommandHandler(plugin, tagManager);
+        this.playerHandler = new PlayerTagCommandHandler(plugin, tagManager);
+        this.bulkHandler = new BulkPermissionCommandHandler(plugin, tagManager);
+        this.jobHandler = new JobCommandHandler(plugin);
+    }
+
+    /**
+     * 在指令生命週期事件中註冊兩個指令樹
+     *
+     * @param mainLabels /koukeneko 的名稱與別名 (第一個為指令名稱)
+     * @param tagLabels /tag 的名稱與別名 (第一個為指令名稱)
+     */
+    public void register(List<String> mainLabels, List<String> tagLabels) {
+        plugin.getLifecycleManager().registerEventHandler(LifecycleEvents.COMMANDS, event -> {
+            Commands commands = event.registrar();
+            commands.register(buildMainCommand(mainLabels.get(0)), "KoukeNeko 插件主指令",
+                    mainLabels.subList(1, mainLabels.size()));
+            commands.register(buildTagCommand(tagLabels.get(0)), "標籤系統指令",
+                    tagLabels.subList(1, tagLabels.size()));
+        });
+    }
+
+    /**
+     * /koukeneko reload|stats
+     */
+    private LiteralCommandNode<CommandSourceStack> buildMainCommand(String name) {
+        return Commands.literal(name)
+                .requires(source -> source.getSender().hasPermission("koukeneko.admin"))
+                .executes(ctx -> {
+                    plugin.getMessageManager().sendConfigMessage(ctx.getSource().getSender(), "reload.usage",
+                            Placeholders.of("label", name));
+                    return Command.SINGLE_SUCCESS;
+                })
+                .then(Commands.literal("reload").executes(ctx -> {
+                    reloadCommand.reload(ctx.getSource().getSender());
+                    return Command.SINGLE_SUCCESS;
+                }))
+                .then(Commands.literal("stats").executes(ctx -> {
+                    reloadCommand.sendStats(ctx.getSource().getSender());
+                    return Command.SINGLE_SUCCESS;
+                }))
+                .build();
+    }
+
+    /**
+     * /tag
+     * /tag create <標籤ID> <顯示文字...>
+     * /tag remove <標籤ID>
+     * /tag grant|revoke <標籤ID> <目標...>
+     * /tag jobs [cancel <編號>]
+     * /tag <玩家> add|remove <標籤ID>
+     */
+    private LiteralCommandNode<CommandSourceStack> buildTagCommand(String name) {
+        SuggestionProvider<CommandSourceStack> tagIds = (ctx, builder) -> {
+            for (String id : completionProvider.getTagIdCompletions(builder.getRemaining())) {
+                builder.suggest(id);
+            }
+            return builder.buildFuture();
+        };
+
+        return Commands.literal(name)
+                .executes(ctx -> openMenu(ctx.getSource()))
+                .then(Commands.literal("create")
+                        .requires(this::isAdmin)
+                        .executes(ctx -> sendUsage(ctx, "tag.create_usage"))
+                        .then(Commands.argument("id", StringArgumentType.word())
+                                .executes(ctx -> sendUsage(ctx, "tag.create_usage"))
+                                .then(Commands.argument("display", StringArgumentType.greedyString())
+                                        .executes(ctx -> {
+                                            createHandler.createTag(ctx.getSource().getSender(),
+                                                    StringArgumentType.getString(ctx, "id"),
+                                                    StringArgumentType.getString(ctx, "display"));
+                                            return Command.SINGLE_SUCCESS;
+                                        }))))
+                .then(Commands.literal("remove")
+                        .requires(this::isAdmin)
+                        .executes(ctx -> sendUsage(ctx, "tag.remove_usage"))
+                        .then(Commands.argument("tag", StringArgumentType.word())
+                                .suggests(tagIds)
+                                .executes(ctx -> {
+                                    removeHandler.removeTag(ctx.getSource().getSender(),
+                                            StringArgumentType.getString(ctx, "tag"));
+                                    return Command.SINGLE_SUCCESS;
+                                })))
+                .then(buildBulkCommand("grant", true, tagIds))
+                .then(buildBulkCommand("revoke", false, tagIds))
+                .then(Commands.literal("jobs")
+                        .requires(this::isAdmin)
+                        .executes(ctx -> {
+                            jobHandler.listJobs(ctx.getSource().getSender());
+                            return Command.SINGLE_SUCCESS;
+                        })
+                        .then(Commands.literal("cancel")
+                                .executes(ctx -> sendUsage(ctx, "job.usage"))
+                                .then(Commands.argument("id", IntegerArgumentType.integer(1))
+                                        .executes(ctx -> {
+                                            jobHandler.cancelJob(ctx.getSource().getSender(),
+                                                    IntegerArgumentType.getInteger(ctx, "id"));
+                                            return Command.SINGLE_SUCCESS;
+                                        }))))
+                .then(Commands.argument("player", StringArgumentType.word())
+                        .requires(this::isAdmin)
+                        .suggests((ctx, builder) -> {
+                            for (String playerName : completionProvider.getPlayerNameCompletions(builder.getRemaining())) {
+                                builder.suggest(playerName);
+                            }
+                            return builder.buildFuture();
+                        })
+                        .then(Commands.literal("add")
+                                .then(Commands.argument("tag", StringArgumentType.word())
+                                        .suggests(tagIds)
+                                        .executes(ctx -> {
+                                            playerHandler.addTagPermission(ctx.getSource().getSender(),
+                                                    StringArgumentType.getString(ctx, "player"),
+                                                    StringArgumentType.getString(ctx, "tag"));
+                                            return Command.SINGLE_SUCCESS;
+                                        })))
+                        .then(Commands.literal("remove")
+                                .then(Commands.argument("tag", StringArgumentType.word())
+                                        .suggests(tagIds)
+                                        .executes(ctx -> {
+                                            playerHandler.removeTagPermission(ctx.getSource().getSender(),
+                                                    StringArgumentType.getString(ctx, "player"),
+                                                    StringArgumentType.getString(ctx, "tag"));
+                                            return Command.SINGLE_SUCCESS;
+                                        }))))
+                .build();
+    }
+
+    /**
+     * /tag grant|revoke <標籤ID> <目標...>
+     */
+    private LiteralArgumentBuilder<CommandSourceStack> buildBulkCommand(
+            String literal, boolean grant, SuggestionProvider<CommandSourceStack> tagIds) {
+        return Commands.literal(literal)
+                .requires(this::isAdmin)
+                .executes(ctx -> sendUsage(ctx, "tag.bulk_usage"))
+                .then(Commands.argument("tag", StringArgumentType.word())
+                        .suggests(tagIds)
+                        .executes(ctx -> sendUsage(ctx, "tag.bulk_usage"))
+                        .then(Commands.argument("target", StringArgumentType.greedyString())
+                                .suggests((ctx, builder) -> {
+                                    for (String prefix : completionProvider.getTargetCompletions(builder.getRemaining())) {
+                                        builder.suggest(prefix);
+                                    }
+                                    return builder.buildFuture();
+                                })
+                                .executes(ctx -> {
+                                    bulkHandler.bulkUpdate(ctx.getSource().getSender(), grant,
+                                            StringArgumentType.getString(ctx, "tag"),
+                                            StringArgumentType.getString(ctx, "target"));
+                                    return Command.SINGLE_SUCCESS;
+                                })));
+    }
+
+    /**
+     * 管理員節點的使用權限
+     * requires 在主執行緒執行，每次都直接檢查權限，撤銷權限 (例如 /deop) 後立即生效；
+     * AdminPermissionCache 只供非同步的自動完成使用
+     */
+    private boolean isAdmin(CommandSourceStack source) {
+        return source.getSender().hasPermission(plugin.getConfig().getString("permission.admin", "koukeneko.admin"));
+    }
+
+    private int openMenu(CommandSourceStack source) {
+        if (source.getExecutor() instanceof Player player) {
+            tagMenu.openMenu(player);
+        } else {
+            plugin.getMessageManager().sendConfigMessage(source.getSender(), "error.player_only");
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private int sendUsage(CommandContext<CommandSourceStack> ctx, String path) {
+        CommandSender sender = ctx.getSource().getSender();
+        plugin.getMessageManager().sendConfigMessage(sender, path);
+        return Command.SINGLE_SUCCESS;
+    }
+}
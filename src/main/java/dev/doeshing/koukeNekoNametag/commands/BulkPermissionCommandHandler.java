@@ -0,0 +1,113 @@
+package dev.doeshing.koukeNekoNametag.commands;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.lang.Placeholders;
+import dev.doeshing.koukeNekoNametag.core.tag.BulkPermissionJob;
+import dev.doeshing.koukeNekoNametag.core.tag.Tag;
+import dev.doeshing.koukeNekoNametag.core.tag.TagManager;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 批次給予/移除標籤權限指令處理器
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 專門處理 /tag grant|revoke <標籤ID> <目標> 的解析與工作提交
+ * - DIP (依賴反轉原則): 目標解析委派給 TargetSetResolver，執行委派給 JobManager
+ * - OCP (開放封閉原則): 實作CommandHandler介面，可擴展而不修改現有程式碼
+ */
+public class BulkPermissionCommandHandler implements CommandHandler {
+
+    private final KoukeNekoNametag plugin;
+    private final TagManager tagManager;
+    private final TargetSetResolver targetResolver;
+
+    public BulkPermissionCommandHandler(KoukeNekoNametag plugin, TagManager tagManager) {
+        this.plugin = plugin;
+        this.tagManager = tagManager;
+        this.targetResolver = new TargetSetResolver(plugin);
+    }
+
+    @Override
+    public boolean handle(CommandSender sender, String[] args) {
+        if (args.length < 3) {
+            plugin.getMessageManager().sendConfigMessage(sender, "tag.bulk_usage");
+            return true;
+        }
+
+        // 目標描述可能含有空白 (例如 list:a, b)，把剩餘的參數合併
+        String target = String.join(" ", Arrays.copyOfRange(args, 2, args.length));
+        bulkUpdate(sender, "grant".equalsIgnoreCase(args[0]), args[1], target);
+        return true;
+    }
+
+    /**
+     * 解析目標並提交批次工作
+     * 由傳統指令與 Brigadier 指令樹共用
+     *
+     * @param sender 指令發送者
+     * @param grant true 為給予，false 為移除
+     * @param tagId 標籤ID
+     * @param target 目標描述
+     */
+    public void bulkUpdate(CommandSender sender, boolean grant, String tagId, String target) {
+        Tag tag = tagManager.getTag(tagId);
+        if (tag == null) {
+            plugin.getMessageManager().sendConfigMessage(sender, "tag.tag_not_found", Placeholders.of("tag", tagId));
+            return;
+        }
+
+        try {
+            targetResolver.resolve(target).whenComplete((targets, throwable) ->
+                    Bukkit.getScheduler().runTask(plugin, () -> {
+                        if (throwable != null) {
+                            sendResolveFailure(sender, target, throwable);
+                        } else {
+                            submitJob(sender, tag, grant, targets);
+                        }
+                    }));
+        } catch (IllegalArgumentException e) {
+            plugin.getMessageManager().sendConfigMessage(sender, "tag.bulk_invalid_target", Placeholders.of("target", target));
+        }
+    }
+
+    /**
+     * 提交批次工作
+     * SRP: 專門處理解析完成後的回報與提交
+     */
+    private void submitJob(CommandSender sender, Tag tag, boolean grant, TargetSetResolver.TargetSet targets) {
+        if (!targets.unresolved().isEmpty()) {
+            plugin.getMessageManager().sendConfigMessage(sender, "tag.bulk_unresolved", Placeholders.of(
+                    "count", String.valueOf(targets.unresolved().size()),
+                    "names", String.join(", ", targets.unresolved())));
+        }
+
+        if (targets.players().isEmpty()) {
+            plugin.getMessageManager().sendConfigMessage(sender, "tag.bulk_empty");
+            return;
+        }
+
+        plugin.getJobManager().submit(new BulkPermissionJob(plugin, tagManager, sender, tag, grant, targets.players()));
+    }
+
+    private void sendResolveFailure(CommandSender sender, String target, Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+        plugin.getMessageManager().sendConfigMessage(sender, "tag.bulk_resolve_failed", Placeholders.of(
+                "target", target,
+                "error", String.valueOf(cause.getMessage())));
+    }
+
+    @Override
+    public String getCommandName() {
+        return "bulk";
+    }
+
+    @Override
+    public boolean canHandle(String[] args) {
+        return args.length > 0 && ("grant".equalsIgnoreCase(args[0]) || "revoke".equalsIgnoreCase(args[0]));
+    }
+}
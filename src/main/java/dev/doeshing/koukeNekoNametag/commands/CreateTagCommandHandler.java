@@ -1,12 +1,12 @@
 package dev.doeshing.koukeNekoNametag.commands;
 
 import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.lang.Placeholders;
 import dev.doeshing.koukeNekoNametag.core.tag.Tag;
 import dev.doeshing.koukeNekoNametag.core.tag.TagManager;
 import org.bukkit.command.CommandSender;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
  * 建立標籤指令處理器
@@ -33,35 +33,40 @@ public class CreateTagCommandHandler implements CommandHandler {
             return true;
         }
         
-        String tagId = args[1];
-        String display = args[2];
-        
+        // 顯示文字可包含空白，與 Brigadier 指令樹的 greedy 參數一致
+        createTag(sender, args[1], String.join(" ", Arrays.copyOfRange(args, 2, args.length)));
+        return true;
+    }
+    
+    /**
+     * 建立標籤
+     * 由傳統指令與 Brigadier 指令樹共用
+     *
+     * @param sender 指令發送者
+     * @param tagId 標籤ID
+     * @param display 顯示文字
+     */
+    public void createTag(CommandSender sender, String tagId, String display) {
         // SRP: 使用Tag的靜態方法驗證ID
         if (!Tag.isValidId(tagId)) {
             plugin.getMessageManager().sendConfigMessage(sender, "tag.invalid_id");
-            return true;
+            return;
         }
         
         // 檢查標籤是否已存在
         if (tagManager.getTag(tagId) != null) {
-            Map<String, String> placeholders = new HashMap<>();
-            placeholders.put("tag", tagId);
-            plugin.getMessageManager().sendConfigMessage(sender, "tag.tag_exists", placeholders);
-            return true;
+            plugin.getMessageManager().sendConfigMessage(sender, "tag.tag_exists", Placeholders.of("tag", tagId));
+            return;
         }
         
         // SRP: 委派給TagManager處理標籤建立
         Tag tag = tagManager.createTag(tagId, display);
         if (tag != null) {
-            Map<String, String> placeholders = new HashMap<>();
-            placeholders.put("display", tag.getDisplay());
-            placeholders.put("id", tag.getId());
-            plugin.getMessageManager().sendConfigMessage(sender, "tag.created", placeholders);
+            plugin.getMessageManager().sendConfigMessage(sender, "tag.created",
+                    Placeholders.of("display", tag.getDisplay(), "id", tag.getId()));
         } else {
             plugin.getMessageManager().sendConfigMessage(sender, "tag.create_failed");
         }
-        
-        return true;
     }
     
     @Override
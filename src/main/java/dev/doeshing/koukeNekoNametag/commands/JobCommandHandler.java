@@ -0,0 +1,85 @@
+package dev.doeshing.koukeNekoNametag.commands;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.job.TickBudgetedJob;
+import dev.doeshing.koukeNekoNametag.core.lang.Placeholders;
+import org.bukkit.command.CommandSender;
+
+import java.util.List;
+
+/**
+ * 背景工作指令處理器
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 專門處理 /tag jobs [cancel <編號>] 的列出與取消
+ * - OCP (開放封閉原則): 實作CommandHandler介面，可擴展而不修改現有程式碼
+ */
+public class JobCommandHandler implements CommandHandler {
+
+    private final KoukeNekoNametag plugin;
+
+    public JobCommandHandler(KoukeNekoNametag plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean handle(CommandSender sender, String[] args) {
+        if (args.length == 1) {
+            listJobs(sender);
+            return true;
+        }
+
+        if (args.length == 3 && "cancel".equalsIgnoreCase(args[1])) {
+            try {
+                cancelJob(sender, Integer.parseInt(args[2]));
+            } catch (NumberFormatException e) {
+                plugin.getMessageManager().sendConfigMessage(sender, "job.not_found", Placeholders.of("id", args[2]));
+            }
+            return true;
+        }
+
+        plugin.getMessageManager().sendConfigMessage(sender, "job.usage");
+        return true;
+    }
+
+    /**
+     * 列出執行中的工作
+     * 由傳統指令與 Brigadier 指令樹共用
+     */
+    public void listJobs(CommandSender sender) {
+        List<TickBudgetedJob> jobs = plugin.getJobManager().getJobs();
+        if (jobs.isEmpty()) {
+            plugin.getMessageManager().sendConfigMessage(sender, "job.list_empty");
+            return;
+        }
+
+        plugin.getMessageManager().sendConfigMessage(sender, "job.list_header");
+        for (TickBudgetedJob job : jobs) {
+            plugin.getMessageManager().sendConfigMessage(sender, "job.list_entry", Placeholders.of(
+                    "id", String.valueOf(job.getId()),
+                    "name", job.getName(),
+                    "done", String.valueOf(job.getProcessed()),
+                    "total", String.valueOf(job.getTotal())));
+        }
+    }
+
+    /**
+     * 取消工作
+     * 由傳統指令與 Brigadier 指令樹共用
+     */
+    public void cancelJob(CommandSender sender, int id) {
+        if (!plugin.getJobManager().cancel(id)) {
+            plugin.getMessageManager().sendConfigMessage(sender, "job.not_found", Placeholders.of("id", String.valueOf(id)));
+        }
+    }
+
+    @Override
+    public String getCommandName() {
+        return "jobs";
+    }
+
+    @Override
+    public boolean canHandle(String[] args) {
+        return args.length > 0 && "jobs".equalsIgnoreCase(args[0]);
+    }
+}
@@ -1,14 +1,15 @@
 package dev.doeshing.koukeNekoNametag.commands;
 
 import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.lang.Placeholders;
 import dev.doeshing.koukeNekoNametag.core.tag.Tag;
 import dev.doeshing.koukeNekoNametag.core.tag.TagManager;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
+import java.util.UUID;
 
 /**
  * 玩家標籤操作指令處理器
@@ -39,41 +40,111 @@ public class PlayerTagCommandHandler implements CommandHandler {
         String action = args[1].toLowerCase();
         String tagId = args[2];
         
-        // SRP: 委派給專門的方法處理玩家查找
-        Player targetPlayer = findTargetPlayer(sender, playerName);
-        if (targetPlayer == null) {
-            return true;
-        }
-        
-        // SRP: 委派給專門的方法處理標籤查找
-        Tag tag = findTag(sender, tagId);
-        if (tag == null) {
-            return true;
-        }
-        
         // SRP: 根據操作類型委派給對應的處理方法
         switch (action) {
             case "add":
-                return handleAddPermission(sender, targetPlayer, tag);
+                addTagPermission(sender, playerName, tagId);
+                return true;
             case "remove":
-                return handleRemovePermission(sender, targetPlayer, tag);
+                removeTagPermission(sender, playerName, tagId);
+                return true;
             default:
                 return handleUnknownAction(sender, action);
         }
     }
     
     /**
-     * 查找目標玩家
-     * SRP: 專門處理玩家查找邏輯
+     * 給予玩家標籤權限
+     * 由傳統指令與 Brigadier 指令樹共用
+     *
+     * @param target 玩家名稱或UUID (可為離線玩家)
      */
-    private Player findTargetPlayer(CommandSender sender, String playerName) {
-        Player targetPlayer = Bukkit.getPlayer(playerName);
-        if (targetPlayer == null) {
-            Map<String, String> placeholders = new HashMap<>();
-            placeholders.put("player", playerName);
-            plugin.getMessageManager().sendConfigMessage(sender, "tag.player_not_found", placeholders);
+    public void addTagPermission(CommandSender sender, String target, String tagId) {
+        // SRP: 委派給專門的方法處理標籤查找
+        Tag tag = findTag(sender, tagId);
+        if (tag != null) {
+            updatePermission(sender, target, tag, true);
         }
-        return targetPlayer;
+    }
+    
+    /**
+     * 移除玩家標籤權限
+     * 由傳統指令與 Brigadier 指令樹共用
+     *
+     * @param target 玩家名稱或UUID (可為離線玩家)
+     */
+    public void removeTagPermission(CommandSender sender, String target, String tagId) {
+        Tag tag = findTag(sender, tagId);
+        if (tag != null) {
+            updatePermission(sender, target, tag, false);
+        }
+    }
+    
+    /**
+     * 依目標是否在線選擇處理方式
+     * 名稱完全相符的線上玩家立即處理；其餘名稱交由解析器非同步查詢UUID，完成後回到主執行緒。
+     * 不使用名稱開頭比對，避免離線玩家的名稱被當成另一位名稱較長的線上玩家
+     */
+    private void updatePermission(CommandSender sender, String target, Tag tag, boolean grant) {
+        UUID onlineId = plugin.getPlayerNameIndex().findExactId(target);
+        Player targetPlayer = onlineId != null ? Bukkit.getPlayer(onlineId) : null;
+        if (targetPlayer != null) {
+            updateOnlinePermission(sender, targetPlayer, tag, grant);
+            return;
+        }
+        
+        plugin.getPlayerIdResolver().resolve(target).whenComplete((playerId, throwable) ->
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (throwable != null || playerId == null) {
+                        plugin.getMessageManager().sendConfigMessage(sender, "tag.player_not_found",
+                                Placeholders.of("player", target));
+                        return;
+                    }
+                    
+                    // 查詢期間玩家可能已經上線 (或輸入的是線上玩家的UUID)
+                    Player online = Bukkit.getPlayer(playerId);
+                    if (online != null) {
+                        updateOnlinePermission(sender, online, tag, grant);
+                    } else {
+                        updateOfflinePermission(sender, target, playerId, tag, grant);
+                    }
+                }));
+    }
+    
+    private void updateOnlinePermission(CommandSender sender, Player targetPlayer, Tag tag, boolean grant) {
+        if (grant) {
+            handleAddPermission(sender, targetPlayer, tag);
+        } else {
+            handleRemovePermission(sender, targetPlayer, tag);
+        }
+    }
+    
+    /**
+     * 處理離線玩家
+     * 權限服務支援離線玩家時直接套用，失敗或不支援時排入待處理佇列
+     */
+    private void updateOfflinePermission(CommandSender sender, String target, UUID playerId, Tag tag, boolean grant) {
+        if (!tagManager.supportsOfflineTargets()) {
+            queuePermission(sender, target, playerId, tag, grant);
+            return;
+        }
+        
+        plugin.getPendingGrantQueue().discard(playerId, tag.getId());
+        tagManager.applyTagPermissionBatch(List.of(playerId), tag, grant).whenComplete((count, throwable) ->
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (throwable != null || count == 0) {
+                        queuePermission(sender, target, playerId, tag, grant);
+                    } else {
+                        plugin.getMessageManager().sendConfigMessage(sender, grant ? "tag.tag_added" : "tag.tag_removed",
+                                Placeholders.of("player", target, "display", tag.getDisplay()));
+                    }
+                }));
+    }
+    
+    private void queuePermission(CommandSender sender, String target, UUID playerId, Tag tag, boolean grant) {
+        plugin.getPendingGrantQueue().enqueue(playerId, tag.getId(), grant);
+        plugin.getMessageManager().sendConfigMessage(sender, "tag.grant_queued",
+                Placeholders.of("player", target, "display", tag.getDisplay()));
     }
     
     /**
@@ -83,9 +154,7 @@ public class PlayerTagCommandHandler implements CommandHandler {
     private Tag findTag(CommandSender sender, String tagId) {
         Tag tag = tagManager.getTag(tagId);
         if (tag == null) {
-            Map<String, String> placeholders = new HashMap<>();
-            placeholders.put("tag", tagId);
-            plugin.getMessageManager().sendConfigMessage(sender, "tag.tag_not_found", placeholders);
+            plugin.getMessageManager().sendConfigMessage(sender, "tag.tag_not_found", Placeholders.of("tag", tagId));
         }
         return tag;
     }
@@ -121,9 +190,7 @@ public class PlayerTagCommandHandler implements CommandHandler {
      * SRP: 專門處理錯誤情況
      */
     private boolean handleUnknownAction(CommandSender sender, String action) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("action", action);
-        plugin.getMessageManager().sendConfigMessage(sender, "tag.unknown_action", placeholders);
+        plugin.getMessageManager().sendConfigMessage(sender, "tag.unknown_action", Placeholders.of("action", action));
         plugin.getMessageManager().sendConfigMessage(sender, "tag.help");
         return true;
     }
@@ -133,14 +200,10 @@ public class PlayerTagCommandHandler implements CommandHandler {
      * SRP: 專門處理訊息傳送邏輯
      */
     private void sendPermissionAddedMessage(CommandSender sender, Player targetPlayer, Tag tag) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("player", targetPlayer.getName());
-        placeholders.put("display", tag.getDisplay());
-        plugin.getMessageManager().sendConfigMessage(sender, "tag.tag_added", placeholders);
-        
-        Map<String, String> playerPlaceholders = new HashMap<>();
-        playerPlaceholders.put("display", tag.getDisplay());
-        plugin.getMessageManager().sendConfigMessage(targetPlayer, "tag.you_got_tag", playerPlaceholders);
+        plugin.getMessageManager().sendConfigMessage(sender, "tag.tag_added",
+                Placeholders.of("player", targetPlayer.getName(), "display", tag.getDisplay()));
+        plugin.getMessageManager().sendConfigMessage(targetPlayer, "tag.you_got_tag",
+                Placeholders.of("display", tag.getDisplay()));
     }
     
     /**
@@ -148,14 +211,10 @@ public class PlayerTagCommandHandler implements CommandHandler {
      * SRP: 專門處理訊息傳送邏輯
      */
     private void sendPermissionRemovedMessage(CommandSender sender, Player targetPlayer, Tag tag) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("player", targetPlayer.getName());
-        placeholders.put("display", tag.getDisplay());
-        plugin.getMessageManager().sendConfigMessage(sender, "tag.tag_removed", placeholders);
-        
-        Map<String, String> playerPlaceholders = new HashMap<>();
-        playerPlaceholders.put("display", tag.getDisplay());
-        plugin.getMessageManager().sendConfigMessage(targetPlayer, "tag.your_tag_removed", playerPlaceholders);
+        plugin.getMessageManager().sendConfigMessage(sender, "tag.tag_removed",
+                Placeholders.of("player", targetPlayer.getName(), "display", tag.getDisplay()));
+        plugin.getMessageManager().sendConfigMessage(targetPlayer, "tag.your_tag_removed",
+                Placeholders.of("display", tag.getDisplay()));
     }
     
     @Override
@@ -1,23 +1,31 @@
 package dev.doeshing.koukeNekoNametag.commands;
 
 import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.ComponentCache;
+import dev.doeshing.koukeNekoNametag.core.StartupTimings;
+import dev.doeshing.koukeNekoNametag.core.lang.Placeholders;
+import dev.doeshing.koukeNekoNametag.core.tag.AvailableTagCache;
+import dev.doeshing.koukeNekoNametag.core.tag.PersistenceMetrics;
+import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
 
 public class ReloadCommand implements CommandExecutor, TabCompleter {
 
     private final KoukeNekoNametag plugin;
+    private final TagCompletionProvider completionProvider;
 
-    public ReloadCommand(KoukeNekoNametag plugin) {
+    public ReloadCommand(KoukeNekoNametag plugin, TagCompletionProvider completionProvider) {
         this.plugin = plugin;
+        this.completionProvider = completionProvider;
     }
 
     @Override
@@ -30,38 +38,90 @@ public class ReloadCommand implements CommandExecutor, TabCompleter {
 
         // 確保有參數
         if (args.length < 1) {
-            plugin.getMessageManager().sendConfigMessage(sender, "reload.usage", Map.of("label", label));
+            plugin.getMessageManager().sendConfigMessage(sender, "reload.usage", Placeholders.of("label", label));
             return true;
         }
 
         // 處理指令
         if (args[0].equalsIgnoreCase("reload")) {
-            // 重新載入設定文件
-            plugin.reloadConfig();
-
-            // 發送重載完成訊息
-            plugin.getMessageManager().sendConfigMessage(sender, "reload.success");
+            reload(sender);
+        } else if (args[0].equalsIgnoreCase("stats")) {
+            sendStats(sender);
         } else {
             // 未知指令
-            Map<String, String> placeholders = new HashMap<>();
-            placeholders.put("command", args[0]);
-            plugin.getMessageManager().sendConfigMessage(sender, "error.unknown_subcommand", placeholders);
+            plugin.getMessageManager().sendConfigMessage(sender, "error.unknown_subcommand", Placeholders.of("command", args[0]));
         }
 
         return true;
     }
 
-    @Override
-    public List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command, @NotNull String alias, @NotNull String[] args) {
-        List<String> completions = new ArrayList<>();
+    /**
+     * 重新載入設定並回報
+     * 由傳統指令與 Brigadier 指令樹共用
+     * 解析在背景進行，完成後回到主執行緒回報結果；失敗時繼續使用原本的設定
+     */
+    public void reload(CommandSender sender) {
+        plugin.reloadAsync().whenComplete((ignored, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            if (error == null) {
+                // 發送重載完成訊息
+                plugin.getMessageManager().sendConfigMessage(sender, "reload.success");
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            plugin.getLogger().log(Level.SEVERE, "重新載入設定檔時發生錯誤，保留原本的設定: " + cause.getMessage(), cause);
+            plugin.getMessageManager().sendConfigMessage(sender, "reload.failed",
+                    Placeholders.of("error", String.valueOf(cause.getMessage())));
+        }));
+    }
+
+    /**
+     * 傳送統計資訊
+     */
+    public void sendStats(CommandSender sender) {
+        plugin.getMessageManager().sendConfigMessage(sender, "stats.header");
 
-        if (args.length == 1) {
-            // 只有一個子指令: reload
-            if ("reload".startsWith(args[0].toLowerCase())) {
-                completions.add("reload");
+        PersistenceMetrics metrics = plugin.getTagRepository().getPersistenceMetrics();
+        plugin.getMessageManager().sendConfigMessage(sender, "stats.persistence", Placeholders.of(
+                "flushes", String.valueOf(metrics.getFlushCount()),
+                "failures", String.valueOf(metrics.getFailedFlushCount()),
+                "mutations", String.valueOf(metrics.getMutationCount())));
+        plugin.getMessageManager().sendConfigMessage(sender, "stats.persistence_batch", Placeholders.of(
+                "last_batch", String.valueOf(metrics.getLastBatchSize()),
+                "avg_batch", String.format("%.1f", metrics.getAverageBatchSize()),
+                "max_batch", String.valueOf(metrics.getMaxBatchSize())));
+        plugin.getMessageManager().sendConfigMessage(sender, "stats.persistence_latency", Placeholders.of(
+                "last_ms", String.format("%.2f", metrics.getLastFlushMillis()),
+                "avg_ms", String.format("%.2f", metrics.getAverageFlushMillis()),
+                "max_ms", String.format("%.2f", metrics.getMaxFlushMillis())));
+
+        AvailableTagCache availableTagCache = plugin.getTagManager().getAvailableTagCache();
+        plugin.getMessageManager().sendConfigMessage(sender, "stats.available_tags", Placeholders.of(
+                "size", String.valueOf(availableTagCache.size()),
+                "hits", String.valueOf(availableTagCache.getHitCount()),
+                "misses", String.valueOf(availableTagCache.getMissCount())));
+
+        ComponentCache componentCache = plugin.getMessageManager().getComponentCache();
+        plugin.getMessageManager().sendConfigMessage(sender, "stats.components", Placeholders.of(
+                "size", String.valueOf(componentCache.size()),
+                "chars", String.valueOf(componentCache.getWeight()),
+                "hit_rate", String.format("%.1f", componentCache.getHitRate() * 100)));
+
+        StartupTimings startupTimings = plugin.getStartupTimings();
+        StringBuilder phases = new StringBuilder();
+        for (Map.Entry<String, Double> phase : startupTimings.getPhaseMillis()) {
+            if (!phases.isEmpty()) {
+                phases.append(", ");
             }
+            phases.append(phase.getKey()).append(' ').append(String.format("%.1f", phase.getValue())).append(" ms");
         }
+        plugin.getMessageManager().sendConfigMessage(sender, "stats.startup", Placeholders.of(
+                "total_ms", String.format("%.1f", startupTimings.getTotalMillis()),
+                "phases", phases.toString()));
+    }
 
-        return completions;
+    @Override
+    public List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command, @NotNull String alias, @NotNull String[] args) {
+        // 一般情況下由 AsyncTabCompleteListener 在非同步執行緒處理，這裡只是備援路徑
+        return completionProvider.completeMain(sender, args);
     }
 }
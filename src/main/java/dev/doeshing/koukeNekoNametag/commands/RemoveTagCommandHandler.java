@@ -1,15 +1,17 @@
 package dev.doeshing.koukeNekoNametag.commands;
 
 import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.lang.Placeholders;
 import dev.doeshing.koukeNekoNametag.core.tag.Tag;
+import dev.doeshing.koukeNekoNametag.core.tag.TagDeletionJob;
 import dev.doeshing.koukeNekoNametag.core.tag.TagManager;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.UUID;
 
 /**
  * 移除標籤指令處理器
@@ -36,82 +38,48 @@ public class RemoveTagCommandHandler implements CommandHandler {
             return true;
         }
         
-        String tagId = args[1];
-        Tag tag = tagManager.getTag(tagId);
-        
-        if (tag == null) {
-            Map<String, String> placeholders = new HashMap<>();
-            placeholders.put("tag", tagId);
-            plugin.getMessageManager().sendConfigMessage(sender, "tag.tag_not_exists", placeholders);
-            return true;
-        }
-        
-        // SRP: 分離處理在線玩家和全域權限移除的邏輯
-        int affectedPlayers = handleOnlinePlayersPermissionRemoval(tag);
-        handleGlobalPermissionRemoval(tag);
-        
-        // SRP: 委派給TagManager處理標籤刪除
-        if (tagManager.deleteTag(tagId)) {
-            sendSuccessMessage(sender, tag, affectedPlayers);
-        } else {
-            plugin.getMessageManager().sendConfigMessage(sender, "tag.delete_failed");
-        }
-        
+        removeTag(sender, args[1]);
         return true;
     }
     
     /**
-     * 處理在線玩家的權限移除
-     * SRP: 專門處理在線玩家邏輯
+     * 刪除標籤
+     * 由傳統指令與 Brigadier 指令樹共用
+     *
+     * @param sender 指令發送者
+     * @param tagId 標籤ID
      */
-    private int handleOnlinePlayersPermissionRemoval(Tag tag) {
-        int affectedPlayers = 0;
+    public void removeTag(CommandSender sender, String tagId) {
+        Tag tag = tagManager.getTag(tagId);
         
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (player.hasPermission(tag.getPermission())) {
-                // 移除玩家的標籤權限
-                tagManager.removeTagPermission(player, tag);
-                
-                // 傳送通知給玩家
-                Map<String, String> placeholders = new HashMap<>();
-                placeholders.put("display", tag.getDisplay());
-                plugin.getMessageManager().sendConfigMessage(player, "tag.tag_deleted_notice", placeholders);
-                affectedPlayers++;
-            }
+        if (tag == null) {
+            plugin.getMessageManager().sendConfigMessage(sender, "tag.tag_not_exists", Placeholders.of("tag", tagId));
+            return;
         }
         
-        return affectedPlayers;
-    }
-    
-    /**
-     * 處理全域權限移除
-     * SRP: 專門處理全域權限移除邏輯
-     */
-    private void handleGlobalPermissionRemoval(Tag tag) {
-        List<String> commands = plugin.getConfig().getStringList("command.remove_permission_all");
-        for (String cmd : commands) {
-            cmd = cmd.replace("{tag}", tag.getPermission())
-                   .replace("{display}", tag.getDisplay());
-            plugin.getLogger().info("執行移除所有玩家標籤權限指令: " + cmd);
-            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), cmd);
+        // SRP: 委派給TagManager處理標籤刪除，標籤立即從目錄移除
+        if (!tagManager.deleteTag(tagId)) {
+            plugin.getMessageManager().sendConfigMessage(sender, "tag.delete_failed");
+            return;
         }
+        
+        plugin.getMessageManager().sendConfigMessage(sender, "tag.deleted",
+                Placeholders.of("display", tag.getDisplay(), "id", tag.getId()));
+        
+        // SRP: 權限收回與通知交給背景工作分散到多個 tick
+        plugin.getJobManager().submit(new TagDeletionJob(plugin, tagManager, sender, tag, snapshotOnlinePlayers()));
     }
     
     /**
-     * 傳送成功訊息
-     * SRP: 專門處理成功訊息邏輯
+     * 記錄刪除當下的線上玩家
+     * SRP: 專門處理在線玩家快照
      */
-    private void sendSuccessMessage(CommandSender sender, Tag tag, int affectedPlayers) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("display", tag.getDisplay());
-        placeholders.put("id", tag.getId());
-        plugin.getMessageManager().sendConfigMessage(sender, "tag.deleted", placeholders);
-        
-        if (affectedPlayers > 0) {
-            Map<String, String> countPlaceholders = new HashMap<>();
-            countPlaceholders.put("count", String.valueOf(affectedPlayers));
-            plugin.getMessageManager().sendConfigMessage(sender, "tag.affected_players", countPlaceholders);
+    private List<UUID> snapshotOnlinePlayers() {
+        List<UUID> players = new ArrayList<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            players.add(player.getUniqueId());
         }
+        return players;
     }
     
     @Override
@@ -1,10 +1,8 @@
 package dev.doeshing.koukeNekoNametag.commands;
 
 import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
-import dev.doeshing.koukeNekoNametag.core.tag.Tag;
 import dev.doeshing.koukeNekoNametag.core.tag.TagManager;
 import dev.doeshing.koukeNekoNametag.core.tag.TagMenu;
-import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -30,6 +28,7 @@ public class TagCommand implements CommandExecutor, TabCompleter {
     private final KoukeNekoNametag plugin;
     private final TagManager tagManager;
     private final TagMenu tagMenu;
+    private final TagCompletionProvider completionProvider;
     private final List<CommandHandler> commandHandlers; // DIP: 依賴抽象介面
 
     /**
@@ -38,10 +37,12 @@ public class TagCommand implements CommandExecutor, TabCompleter {
      * DIP原則: 注入依賴而非直接建立具體實作
      * SRP原則: 初始化指令處理器責任鏈
      */
-    public TagCommand(KoukeNekoNametag plugin, TagManager tagManager, TagMenu tagMenu) {
+    public TagCommand(KoukeNekoNametag plugin, TagManager tagManager, TagMenu tagMenu,
+                      TagCompletionProvider completionProvider) {
         this.plugin = plugin;
         this.tagManager = tagManager;
         this.tagMenu = tagMenu;
+        this.completionProvider = completionProvider;
         this.commandHandlers = initializeCommandHandlers();
     }
     
@@ -53,6 +54,8 @@ public class TagCommand implements CommandExecutor, TabCompleter {
         List<CommandHandler> handlers = new ArrayList<>();
         handlers.add(new CreateTagCommandHandler(plugin, tagManager));
         handlers.add(new RemoveTagCommandHandler(plugin, tagManager));
+        handlers.add(new BulkPermissionCommandHandler(plugin, tagManager));
+        handlers.add(new JobCommandHandler(plugin));
         handlers.add(new PlayerTagCommandHandler(plugin, tagManager));
         return handlers;
     }
@@ -106,116 +109,13 @@ public class TagCommand implements CommandExecutor, TabCompleter {
         return sender.hasPermission(adminPermission);
     }
 
-    @Override
-    public List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command, @NotNull String alias, @NotNull String[] args) {
-        List<String> completions = new ArrayList<>();
-        
-        // SRP: 委派給專門的方法檢查權限
-        if (!hasAdminPermission(sender)) {
-            return completions;
-        }
-        
-        // SRP: 委派給專門的方法處理自動完成
-        return generateTabCompletions(args);
-    }
-    
-    /**
-     * 產生自動完成建議
-     * SRP: 專門處理自動完成邏輯
-     */
-    private List<String> generateTabCompletions(String[] args) {
-        List<String> completions = new ArrayList<>();
-        
-        if (args.length == 1) {
-            return getFirstArgumentCompletions(args[0]);
-        }
-        
-        if (args.length == 2) {
-            return getSecondArgumentCompletions(args);
-        }
-        
-        if (args.length == 3) {
-            return getThirdArgumentCompletions(args);
-        }
-        
-        return completions;
-    }
-    
-    /**
-     * 獲取第一個參數的自動完成
-     * SRP: 專門處理第一個參數自動完成
-     */
-    private List<String> getFirstArgumentCompletions(String input) {
-        List<String> completions = new ArrayList<>();
-        
-        // 指令關鍵字
-        if ("create".startsWith(input.toLowerCase())) {
-            completions.add("create");
-        }
-        if ("remove".startsWith(input.toLowerCase())) {
-            completions.add("remove");
-        }
-        
-        // 在線玩家
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (player.getName().toLowerCase().startsWith(input.toLowerCase())) {
-                completions.add(player.getName());
-            }
-        }
-        
-        return completions;
-    }
-    
     /**
-     * 獲取第二個參數的自動完成
-     * SRP: 專門處理第二個參數自動完成
+     * 同步自動完成
+     * 一般情況下由 AsyncTabCompleteListener 在非同步執行緒處理，這裡只是備援路徑
      */
-    private List<String> getSecondArgumentCompletions(String[] args) {
-        List<String> completions = new ArrayList<>();
-        
-        if ("create".equalsIgnoreCase(args[0])) {
-            // create 後面不提供自動完成
-            return completions;
-        }
-        
-        if ("remove".equalsIgnoreCase(args[0])) {
-            // remove 後面是標籤ID
-            for (Tag tag : tagManager.getAllTags()) {
-                if (tag.getId().toLowerCase().startsWith(args[1].toLowerCase())) {
-                    completions.add(tag.getId());
-                }
-            }
-            return completions;
-        }
-        
-        // 玩家名稱後面是 add/remove
-        List<String> actions = List.of("add", "remove");
-        for (String action : actions) {
-            if (action.startsWith(args[1].toLowerCase())) {
-                completions.add(action);
-            }
-        }
-        
-        return completions;
-    }
-    
-    /**
-     * 獲取第三個參數的自動完成
-     * SRP: 專門處理第三個參數自動完成
-     */
-    private List<String> getThirdArgumentCompletions(String[] args) {
-        List<String> completions = new ArrayList<>();
-        
-        if (!"create".equalsIgnoreCase(args[0]) && 
-            ("add".equalsIgnoreCase(args[1]) || "remove".equalsIgnoreCase(args[1]))) {
-            // 如果是 /tag <player> add/remove，第三個參數是標籤ID
-            for (Tag tag : tagManager.getAllTags()) {
-                if (tag.getId().toLowerCase().startsWith(args[2].toLowerCase())) {
-                    completions.add(tag.getId());
-                }
-            }
-        }
-        
-        return completions;
+    @Override
+    public List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command, @NotNull String alias, @NotNull String[] args) {
+        // SRP: 委派給自動完成提供者 (包含權限檢查)
+        return completionProvider.completeTag(sender, args);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,227 @@
+package dev.doeshing.koukeNekoNametag.commands;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.AdminPermissionCache;
+import dev.doeshing.koukeNekoNametag.core.job.TickBudgetedJob;
+import dev.doeshing.koukeNekoNametag.core.tag.TagManager;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 指令自動完成提供者
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責產生 /tag 與 /koukeneko 的自動完成建議
+ * - DIP (依賴反轉原則): 非同步監聽器與同步指令共用同一份邏輯
+ *
+ * 只讀取不可變的目錄快照、併發安全的玩家名稱索引與快取的管理員旗標，
+ * 因此可以在 Paper 的非同步自動完成執行緒上呼叫。
+ */
+public class TagCompletionProvider {
+
+    private static final List<String> MAIN_SUBCOMMANDS = List.of("reload", "stats");
+    private static final List<String> TAG_SUBCOMMANDS = List.of("create", "remove", "grant", "revoke", "jobs");
+
+    private final KoukeNekoNametag plugin;
+    private final TagManager tagManager;
+    private final AdminPermissionCache adminCache;
+    private volatile int maxSuggestions;
+
+    public TagCompletionProvider(KoukeNekoNametag plugin, TagManager tagManager, AdminPermissionCache adminCache) {
+        this.plugin = plugin;
+        this.tagManager = tagManager;
+        this.adminCache = adminCache;
+        reload();
+    }
+
+    /**
+     * 重新讀取建議數量上限
+     * 只能在主執行緒呼叫
+     */
+    public void reload() {
+        this.maxSuggestions = plugin.getConfig().getInt("completion.max_suggestions", 50);
+    }
+
+    /**
+     * 產生 /tag 的自動完成建議
+     *
+     * @param sender 指令發送者
+     * @param args 目前已輸入的參數 (最後一個為正在輸入的參數)
+     * @return 建議清單，沒有權限時為空
+     */
+    public List<String> completeTag(CommandSender sender, String[] args) {
+        if (!adminCache.isAdmin(sender)) {
+            return Collections.emptyList();
+        }
+        return generateTabCompletions(args);
+    }
+
+    /**
+     * 產生 /koukeneko 的自動完成建議
+     *
+     * @param sender 指令發送者
+     * @param args 目前已輸入的參數 (最後一個為正在輸入的參數)
+     * @return 建議清單，沒有權限時為空
+     */
+    public List<String> completeMain(CommandSender sender, String[] args) {
+        List<String> completions = new ArrayList<>();
+        if (args.length != 1 || !adminCache.isAdmin(sender)) {
+            return completions;
+        }
+
+        // 子指令: reload, stats
+        for (String subcommand : MAIN_SUBCOMMANDS) {
+            if (subcommand.startsWith(args[0].toLowerCase(Locale.ROOT))) {
+                completions.add(subcommand);
+            }
+        }
+        return completions;
+    }
+
+    /**
+     * 產生自動完成建議
+     * SRP: 專門處理自動完成邏輯
+     */
+    private List<String> generateTabCompletions(String[] args) {
+        List<String> completions = new ArrayList<>();
+        
+        if (args.length == 1) {
+            return getFirstArgumentCompletions(args[0]);
+        }
+        
+        if (args.length == 2) {
+            return getSecondArgumentCompletions(args);
+        }
+        
+        if (args.length == 3) {
+            return getThirdArgumentCompletions(args);
+        }
+        
+        return completions;
+    }
+    
+    /**
+     * 獲取第一個參數的自動完成
+     * SRP: 專門處理第一個參數自動完成
+     */
+    private List<String> getFirstArgumentCompletions(String input) {
+        List<String> completions = new ArrayList<>();
+        
+        // 指令關鍵字
+        for (String subcommand : TAG_SUBCOMMANDS) {
+            if (subcommand.startsWith(input.toLowerCase(Locale.ROOT))) {
+                completions.add(subcommand);
+            }
+        }
+        
+        // 在線玩家 - 委派給名稱索引做前綴查找
+        completions.addAll(getPlayerNameCompletions(input));
+        
+        return completions;
+    }
+    
+    /**
+     * 獲取第二個參數的自動完成
+     * SRP: 專門處理第二個參數自動完成
+     */
+    private List<String> getSecondArgumentCompletions(String[] args) {
+        List<String> completions = new ArrayList<>();
+        
+        if ("create".equalsIgnoreCase(args[0])) {
+            // create 後面不提供自動完成
+            return completions;
+        }
+        
+        if ("remove".equalsIgnoreCase(args[0]) || isBulkAction(args[0])) {
+            // remove / grant / revoke 後面是標籤ID
+            return getTagIdCompletions(args[1]);
+        }
+        
+        if ("jobs".equalsIgnoreCase(args[0])) {
+            if ("cancel".startsWith(args[1].toLowerCase(Locale.ROOT))) {
+                completions.add("cancel");
+            }
+            return completions;
+        }
+        
+        // 玩家名稱後面是 add/remove
+        List<String> actions = List.of("add", "remove");
+        for (String action : actions) {
+            if (action.startsWith(args[1].toLowerCase(Locale.ROOT))) {
+                completions.add(action);
+            }
+        }
+        
+        return completions;
+    }
+    
+    /**
+     * 獲取第三個參數的自動完成
+     * SRP: 專門處理第三個參數自動完成
+     */
+    private List<String> getThirdArgumentCompletions(String[] args) {
+        List<String> completions = new ArrayList<>();
+        
+        if (isBulkAction(args[0])) {
+            // grant / revoke 的第三個參數是目標描述
+            return getTargetCompletions(args[2]);
+        }
+        
+        if ("jobs".equalsIgnoreCase(args[0]) && "cancel".equalsIgnoreCase(args[1])) {
+            // 執行中工作的編號 (JobManager 只能在主執行緒讀取，非同步時不提供)
+            if (Bukkit.isPrimaryThread()) {
+                for (TickBudgetedJob job : plugin.getJobManager().getJobs()) {
+                    completions.add(String.valueOf(job.getId()));
+                }
+            }
+            return completions;
+        }
+        
+        if (!"create".equalsIgnoreCase(args[0]) && 
+            ("add".equalsIgnoreCase(args[1]) || "remove".equalsIgnoreCase(args[1]))) {
+            // 如果是 /tag <player> add/remove，第三個參數是標籤ID
+            return getTagIdCompletions(args[2]);
+        }
+        
+        return completions;
+    }
+    
+    /**
+     * 獲取標籤ID的自動完成
+     * SRP: 委派給目前目錄快照的前綴索引，並限制建議數量
+     */
+    public List<String> getTagIdCompletions(String input) {
+        return tagManager.getCatalog().getIdIndex().findByPrefix(input, maxSuggestions);
+    }
+    
+    /**
+     * 獲取線上玩家名稱的自動完成
+     * 離線玩家可以直接輸入名稱或UUID，不提供建議
+     */
+    public List<String> getPlayerNameCompletions(String input) {
+        return plugin.getPlayerNameIndex().findNamesByPrefix(input, maxSuggestions);
+    }
+    
+    /**
+     * 獲取批次指令目標描述的自動完成
+     */
+    public List<String> getTargetCompletions(String input) {
+        List<String> completions = new ArrayList<>();
+        String lower = input.toLowerCase(Locale.ROOT);
+        for (String prefix : TargetSetResolver.TARGET_PREFIXES) {
+            if (prefix.startsWith(lower)) {
+                completions.add(prefix);
+            }
+        }
+        return completions;
+    }
+    
+    private static boolean isBulkAction(String arg) {
+        return "grant".equalsIgnoreCase(arg) || "revoke".equalsIgnoreCase(arg);
+    }
+}
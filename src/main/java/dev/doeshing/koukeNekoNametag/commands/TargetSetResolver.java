@@ -0,0 +1,172 @@
+package dev.doeshing.koukeNekoNametag.commands;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.PlayerIdResolver;
+import dev.doeshing.koukeNekoNametag.core.tag.LuckPermsGroupMembers;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 批次指令的目標集合解析器
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責把目標描述轉換成不重複的玩家UUID清單
+ *
+ * 支援的格式:
+ * - online: 目前所有線上玩家
+ * - list:名稱或UUID,名稱或UUID,...
+ * - file:路徑 (外掛資料夾內的檔案，每行一個UUID，# 開頭為註解)
+ * - group:群組名稱 (需要 LuckPerms，包含離線成員)
+ *
+ * 檔案與群組在非同步執行緒上讀取，結果一律以 CompletableFuture 回傳。
+ */
+public class TargetSetResolver {
+
+    /**
+     * 目標描述的前綴，用於自動完成
+     */
+    public static final List<String> TARGET_PREFIXES = List.of("online", "list:", "file:", "group:");
+
+    private final KoukeNekoNametag plugin;
+
+    /**
+     * 解析結果
+     *
+     * @param players 解析成功的玩家UUID (不重複，保留順序)
+     * @param unresolved 無法解析的項目
+     */
+    public record TargetSet(List<UUID> players, List<String> unresolved) {
+    }
+
+    public TargetSetResolver(KoukeNekoNametag plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * 解析目標描述
+     * 只能在主執行緒呼叫；回傳的 future 可能在其他執行緒完成
+     *
+     * @param target 目標描述
+     * @return 解析結果
+     * @throws IllegalArgumentException 目標格式無效或需要的外掛不存在
+     */
+    public CompletableFuture<TargetSet> resolve(String target) {
+        int colon = target.indexOf(':');
+        String type = (colon < 0 ? target : target.substring(0, colon)).toLowerCase(Locale.ROOT);
+        String value = colon < 0 ? "" : target.substring(colon + 1).trim();
+
+        switch (type) {
+            case "online":
+                return CompletableFuture.completedFuture(resolveOnline());
+            case "list":
+                return CompletableFuture.completedFuture(resolveList(value));
+            case "file":
+                return resolveFile(value);
+            case "group":
+                return resolveGroup(value);
+            default:
+                throw new IllegalArgumentException(target);
+        }
+    }
+
+    private TargetSet resolveOnline() {
+        List<UUID> players = new ArrayList<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            players.add(player.getUniqueId());
+        }
+        return new TargetSet(players, List.of());
+    }
+
+    /**
+     * 逗號分隔的名稱或UUID
+     * 名稱交由 PlayerIdResolver 從線上玩家與快取解析 (不會連線查詢)
+     */
+    private TargetSet resolveList(String value) {
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("list:");
+        }
+
+        Set<UUID> players = new LinkedHashSet<>();
+        List<String> unresolved = new ArrayList<>();
+        for (String entry : value.split(",")) {
+            String name = entry.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            UUID playerId = plugin.getPlayerIdResolver().getCachedId(name);
+            if (playerId != null) {
+                players.add(playerId);
+            } else {
+                unresolved.add(name);
+            }
+        }
+        return new TargetSet(new ArrayList<>(players), unresolved);
+    }
+
+    /**
+     * 外掛資料夾內的UUID檔案，在非同步執行緒讀取
+     */
+    private CompletableFuture<TargetSet> resolveFile(String value) {
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("file:");
+        }
+
+        Path dataFolder = plugin.getDataFolder().toPath().toAbsolutePath().normalize();
+        Path file = dataFolder.resolve(value).normalize();
+        if (!file.startsWith(dataFolder)) {
+            throw new IllegalArgumentException("file:" + value);
+        }
+
+        CompletableFuture<TargetSet> result = new CompletableFuture<>();
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                result.complete(parseUuidLines(Files.readAllLines(file, StandardCharsets.UTF_8)));
+            } catch (IOException e) {
+                result.completeExceptionally(new CompletionException(e));
+            }
+        });
+        return result;
+    }
+
+    private static TargetSet parseUuidLines(List<String> lines) {
+        Set<UUID> players = new LinkedHashSet<>();
+        List<String> unresolved = new ArrayList<>();
+        for (String rawLine : lines) {
+            String line = rawLine.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            UUID playerId = PlayerIdResolver.parseUuid(line);
+            if (playerId != null) {
+                players.add(playerId);
+            } else {
+                unresolved.add(line);
+            }
+        }
+        return new TargetSet(new ArrayList<>(players), unresolved);
+    }
+
+    /**
+     * LuckPerms 群組成員 (包含離線玩家)
+     */
+    private CompletableFuture<TargetSet> resolveGroup(String value) {
+        if (value.isEmpty() || !plugin.isLuckPermsAvailable()) {
+            throw new IllegalArgumentException("group:" + value);
+        }
+        return LuckPermsGroupMembers.find(value.toLowerCase(Locale.ROOT))
+                .thenApply(players -> new TargetSet(players, List.of()));
+    }
+}
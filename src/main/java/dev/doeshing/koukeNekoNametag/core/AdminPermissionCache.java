@@ -0,0 +1,106 @@
+package dev.doeshing.koukeNekoNametag.core;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 管理員權限快取
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責保存每位線上玩家是否擁有管理員權限
+ *
+ * 權限在主執行緒上計算 (玩家加入、權限變更、重新載入設定時)，
+ * 非同步的自動完成執行緒只讀取快取結果，不在非主執行緒上呼叫 hasPermission。
+ */
+public class AdminPermissionCache implements Listener {
+
+    private final KoukeNekoNametag plugin;
+    private final Map<UUID, Boolean> admins = new ConcurrentHashMap<>();
+    private volatile String permission;
+
+    public AdminPermissionCache(KoukeNekoNametag plugin) {
+        this.plugin = plugin;
+        reload();
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * 重新讀取管理員權限節點並重新計算所有線上玩家
+     * 只能在主執行緒呼叫
+     */
+    public void reload() {
+        this.permission = plugin.getConfig().getString("permission.admin", "koukeneko.admin");
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            refresh(player);
+        }
+    }
+
+    /**
+     * 檢查指令發送者是否為管理員
+     * 玩家使用快取結果；主控台等其他發送者直接檢查。
+     * 在非主執行緒遇到尚未快取的玩家時視為非管理員。
+     *
+     * @param sender 指令發送者
+     * @return 是否擁有管理員權限
+     */
+    public boolean isAdmin(CommandSender sender) {
+        if (!(sender instanceof Player player)) {
+            return sender.hasPermission(permission);
+        }
+
+        Boolean cached = admins.get(player.getUniqueId());
+        if (cached != null) {
+            return cached;
+        }
+        return Bukkit.isPrimaryThread() && refresh(player);
+    }
+
+    /**
+     * 排程在主執行緒重新計算指定玩家
+     * 可由任何執行緒呼叫 (例如 LuckPerms 的事件執行緒)
+     *
+     * @param playerId 玩家UUID
+     */
+    public void refreshLater(UUID playerId) {
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null) {
+                refresh(player);
+            }
+        });
+    }
+
+    /**
+     * 重新計算玩家的管理員旗標
+     * 旗標改變時重新傳送指令樹，讓客戶端的指令語法與權限一致
+     */
+    private boolean refresh(Player player) {
+        boolean admin = player.hasPermission(permission);
+        Boolean previous = admins.put(player.getUniqueId(), admin);
+        if (previous != null && previous != admin) {
+            player.updateCommands();
+        }
+        return admin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        refresh(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        admins.remove(event.getPlayer().getUniqueId());
+    }
+}
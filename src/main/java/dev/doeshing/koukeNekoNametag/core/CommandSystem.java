@@ -79,4 +79,18 @@ public class CommandSystem {
             plugin.getLogger().log(java.util.logging.Level.SEVERE, "異常堆疊追蹤: ", e); // 更強健的日誌記錄方式
         }
     }
+
+    /**
+     * 檢查伺服器是否提供 Paper 的生命週期指令 API (Brigadier 指令註冊)
+     * 較舊的伺服器沒有此 API，應改用 registerCommand 的反射註冊
+     */
+    public static boolean isBrigadierAvailable() {
+        try {
+            Class.forName("io.papermc.paper.command.brigadier.Commands");
+            Class.forName("io.papermc.paper.plugin.lifecycle.event.types.LifecycleEvents");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,110 @@
+package dev.doeshing.koukeNekoNametag.core;
+
+import net.kyori.adventure.text.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 文字元件快取
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責保存「訊息文字 -> 已解析 Component」的對應
+ *
+ * 以最近最少使用 (LRU) 順序淘汰，容量以快取鍵的總字元數計算，
+ * 因此大量的長訊息不會把快取撐大。過長的單則訊息直接解析而不快取。
+ * 所有方法皆為同步方法，可由非同步執行緒傳送訊息時使用。
+ */
+public class ComponentCache {
+
+    private final LinkedHashMap<String, Component> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Function<String, Component> parser;
+    private final long maxWeight;      // 快取鍵總字元數上限
+    private final long maxEntryWeight; // 單則訊息可快取的最大字元數
+    private long weight;
+    private long hits;
+    private long misses;
+
+    /**
+     * 建立文字元件快取
+     *
+     * @param parser 未命中時使用的解析方法
+     * @param maxWeight 快取鍵總字元數上限
+     */
+    public ComponentCache(Function<String, Component> parser, long maxWeight) {
+        this.parser = parser;
+        this.maxWeight = Math.max(1L, maxWeight);
+        this.maxEntryWeight = Math.max(1L, this.maxWeight / 8);
+    }
+
+    /**
+     * 獲取文字對應的元件，未命中時解析並放入快取
+     *
+     * @param text 帶有顏色代碼的字串
+     * @return 解析後的元件
+     */
+    public synchronized Component get(String text) {
+        Component cached = entries.get(text);
+        if (cached != null) {
+            hits++;
+            return cached;
+        }
+
+        misses++;
+        Component component = parser.apply(text);
+        if (text.length() <= maxEntryWeight) {
+            entries.put(text, component);
+            weight += text.length();
+            evictIfNeeded();
+        }
+        return component;
+    }
+
+    /**
+     * 依 LRU 順序淘汰，直到總字元數回到上限內
+     */
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Component>> iterator = entries.entrySet().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            weight -= iterator.next().getKey().length();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 清除所有快取 (統計數據一併重置)
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0;
+        hits = 0;
+        misses = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * 獲取命中率
+     * @return 0 到 1 之間的命中率
+     */
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,54 @@
+package dev.doeshing.koukeNekoNametag.core;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 資料檔案的共用寫入與比對工具
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責安全地寫入檔案與計算內容雜湊
+ * - DRY (不重複原則): 所有寫回資料檔案的組件共用同一套寫入方式
+ */
+public final class DataFiles {
+
+    private DataFiles() {
+    }
+
+    /**
+     * 先寫入暫存檔再以改名取代原檔，避免留下寫到一半的檔案
+     * 檔案系統不支援原子改名時退回一般改名
+     *
+     * @param target 目標檔案
+     * @param content 完整的檔案內容
+     * @throws IOException 寫入或改名失敗
+     */
+    public static void writeAtomically(Path target, byte[] content) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.write(temp, content);
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 計算內容的 SHA-256 雜湊，用於判斷檔案內容是否改變
+     *
+     * @param content 檔案內容
+     * @return 雜湊值
+     */
+    public static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+}
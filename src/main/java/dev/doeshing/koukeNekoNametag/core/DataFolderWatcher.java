@@ -0,0 +1,204 @@
+package dev.doeshing.koukeNekoNametag.core;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * 資料夾檔案監看器 (標籤檔案與語言檔熱重載)
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責偵測檔案變更並通知對應的組件重新載入
+ * - DIP (依賴反轉原則): 實際的解析仍委派給 TagManager 與 LanguageManager
+ *
+ * 以 NIO WatchService 監看外掛資料夾 (分片儲存時一併監看分片目錄)。
+ * 連續的事件會在靜止 debounce 時間後合併處理；解析在背景執行緒上進行，
+ * 各組件以單一參考寫入發布新內容，只有需要主執行緒的更新才排回主執行緒。
+ * 內容雜湊與上次相同的檔案 (包含本外掛自己寫入的檔案) 不會觸發重新載入。
+ */
+public class DataFolderWatcher {
+
+    private final KoukeNekoNametag plugin;
+    private final long debounceMillis;
+    private final Map<Path, byte[]> knownHashes = new ConcurrentHashMap<>(); // 檔案 -> 最後已知的內容雜湊
+    private final Path dataFolder;
+    private final Path shardDirectory; // 非分片儲存時為 null
+    private WatchService watchService;
+    private Thread thread;
+
+    public DataFolderWatcher(KoukeNekoNametag plugin) {
+        this.plugin = plugin;
+        this.debounceMillis = Math.max(50L, plugin.getConfig().getLong("hot_reload.debounce_ms", 500L));
+        this.dataFolder = plugin.getDataFolder().toPath().toAbsolutePath().normalize();
+        this.shardDirectory = "sharded".equalsIgnoreCase(plugin.getConfig().getString("storage.type", "yaml"))
+                ? dataFolder.resolve(plugin.getConfig().getString("files.tags_directory", "tags")).normalize()
+                : null;
+    }
+
+    /**
+     * 開始監看
+     * 無法建立監看服務時記錄警告，外掛仍可透過指令手動重新載入
+     */
+    public void start() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            register(dataFolder);
+            if (shardDirectory != null && Files.isDirectory(shardDirectory)) {
+                register(shardDirectory);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("無法啟動檔案監看，熱重載已停用: " + e.getMessage());
+            stop();
+            return;
+        }
+
+        thread = new Thread(this::run, "KoukeNeko-FileWatcher");
+        thread.setDaemon(true);
+        thread.start();
+        plugin.getLogger().info("已啟用標籤與語言檔熱重載");
+    }
+
+    private void register(Path directory) throws IOException {
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.yml")) {
+            for (Path file : files) {
+                byte[] hash = hashOf(file);
+                if (hash != null) {
+                    knownHashes.put(file.toAbsolutePath().normalize(), hash);
+                }
+            }
+        }
+    }
+
+    /**
+     * 停止監看
+     */
+    public void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+                // 關閉失敗時監看執行緒仍會在下一次等待時結束
+            }
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * 記錄本外掛即將寫入的檔案內容
+     * 寫入完成後產生的事件因雜湊相同而被略過，不會重新載入自己剛寫入的檔案
+     *
+     * @param file 目標檔案
+     * @param content 寫入的內容
+     */
+    public void recordOwnWrite(Path file, byte[] content) {
+        knownHashes.put(file.toAbsolutePath().normalize(), DataFiles.sha256(content));
+    }
+
+    /**
+     * 監看執行緒: 收集事件直到靜止 debounce 時間後再一次處理
+     */
+    private void run() {
+        try {
+            while (true) {
+                Set<Path> changed = new LinkedHashSet<>();
+                collect(watchService.take(), changed);
+                WatchKey key;
+                while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    collect(key, changed);
+                }
+                process(changed);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // 外掛停用
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path name) {
+                changed.add(directory.resolve(name).toAbsolutePath().normalize());
+            }
+        }
+        key.reset();
+    }
+
+    /**
+     * 依變更的檔案通知對應的組件
+     * 在監看執行緒上執行
+     */
+    private void process(Set<Path> changed) {
+        boolean tagsChanged = false;
+        boolean languageChanged = false;
+
+        for (Path file : changed) {
+            boolean tagFile = isTagFile(file);
+            boolean languageFile = isLanguageFile(file);
+            if ((!tagFile && !languageFile) || !contentChanged(file)) {
+                continue;
+            }
+            tagsChanged |= tagFile;
+            languageChanged |= languageFile;
+        }
+
+        try {
+            if (tagsChanged) {
+                plugin.getTagManager().reloadInBackground();
+                plugin.getLogger().info("偵測到標籤檔案變更，已重新載入標籤");
+            }
+            if (languageChanged) {
+                // 以目前的設定重新建立設定組，替換時一併重新建立選單物品
+                plugin.rebuildRuntime(false).whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        plugin.getLogger().warning("語言檔重新載入失敗，保留原本的訊息: " + error.getMessage());
+                    }
+                });
+                plugin.getLogger().info("偵測到語言檔變更，正在重新載入語言");
+            }
+        } catch (Exception e) {
+            // 解析失敗時各組件保留原本的內容
+            plugin.getLogger().log(Level.WARNING, "熱重載失敗: " + e.getMessage(), e);
+        }
+    }
+
+    private boolean isTagFile(Path file) {
+        String name = file.getFileName().toString();
+        if (shardDirectory != null) {
+            return file.getParent().equals(shardDirectory) && name.endsWith(".yml");
+        }
+        return file.getParent().equals(dataFolder)
+                && name.equals(plugin.getConfig().getString("files.tags_file", "tags.yml"));
+    }
+
+    private boolean isLanguageFile(Path file) {
+        return file.getParent().equals(dataFolder)
+                && file.getFileName().toString().equals(plugin.getLanguageManager().getLanguageFileName());
+    }
+
+    /**
+     * 比較檔案內容與最後已知的雜湊，並記錄新的雜湊
+     * 檔案被刪除時視為變更
+     */
+    private boolean contentChanged(Path file) {
+        byte[] hash = hashOf(file);
+        byte[] previous = hash != null ? knownHashes.put(file, hash) : knownHashes.remove(file);
+        return !Arrays.equals(hash, previous);
+    }
+
+    private static byte[] hashOf(Path file) {
+        try {
+            return DataFiles.sha256(Files.readAllBytes(file));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package dev.doeshing.koukeNekoNametag.core;
 
 import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
 import dev.doeshing.koukeNekoNametag.core.lang.LanguageManager;
+import dev.doeshing.koukeNekoNametag.core.lang.Placeholders;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Bukkit;
@@ -10,30 +11,56 @@ import org.bukkit.entity.Player;
 
 import java.util.Map;
 
+/**
+ * 訊息管理器 - 負責訊息格式化與傳送
+ * 
+ * 前綴在建立 {@link RuntimeBundle} 時解析一次；訊息文字解析後的 Component 存放在有容量上限的快取中，
+ * 相同的訊息不會被解析第二次。重新載入設定時清除快取。
+ */
 public class MessageManager {
 
     private final KoukeNekoNametag plugin;
-    private String prefix;
+    private final ComponentCache componentCache;
 
     public MessageManager(KoukeNekoNametag plugin) {
         this.plugin = plugin;
-        loadPrefix();
+        this.componentCache = new ComponentCache(
+                text -> LegacyComponentSerializer.legacyAmpersand().deserialize(text),
+                plugin.getConfig().getLong("cache.components.max_chars", 65536L));
     }
-
+    
     /**
-     * 從設定檔讀取前綴
+     * 清除元件快取
+     * 在新的設定組生效後呼叫，前綴隨設定組一起替換
      */
-    public void loadPrefix() {
-        this.prefix = plugin.getConfig().getString("prefix", "&7[&b&l🕹️&7]&f");
+    public void reload() {
+        componentCache.invalidateAll();
     }
 
     /**
      * 將帶有顏色代碼的字串轉換為 Component
+     * 結果會被快取，相同的字串只解析一次
      * @param text 帶有顏色代碼的字串
      * @return Component 物件
      */
     public Component format(String text) {
-        return LegacyComponentSerializer.legacyAmpersand().deserialize(text);
+        return componentCache.get(text);
+    }
+    
+    /**
+     * 在訊息前加上預先解析的前綴
+     * @param message 訊息內容
+     * @return 帶前綴的 Component
+     */
+    private Component withPrefix(String message) {
+        return Component.textOfChildren(plugin.getRuntime().getPrefix(), Component.space(), format(message));
+    }
+    
+    /**
+     * 獲取元件快取
+     */
+    public ComponentCache getComponentCache() {
+        return componentCache;
     }
 
     /**
@@ -42,7 +69,7 @@ public class MessageManager {
      * @param message 訊息內容
      */
     public void sendMessage(CommandSender receiver, String message) {
-        receiver.sendMessage(format(prefix + " " + message));
+        receiver.sendMessage(withPrefix(message));
     }
 
     /**
@@ -50,7 +77,7 @@ public class MessageManager {
      * @param message 訊息內容
      */
     public void broadcastMessage(String message) {
-        Bukkit.broadcast(format(prefix + " " + message));
+        Bukkit.broadcast(withPrefix(message));
     }
 
     /**
@@ -59,7 +86,7 @@ public class MessageManager {
      * @param permission 所需權限
      */
     public void broadcastMessage(String message, String permission) {
-        Component component = format(prefix + " " + message);
+        Component component = withPrefix(message);
         for (Player player : Bukkit.getOnlinePlayers()) {
             if (player.hasPermission(permission)) {
                 player.sendMessage(component);
@@ -88,6 +115,16 @@ public class MessageManager {
         return plugin.getLanguageManager().getMessage(path, placeholders);
     }
 
+    /**
+     * 取得語言檔中的訊息，並替換佔位符
+     * @param path 訊息路徑
+     * @param placeholders 佔位符參數
+     * @return 替換後的訊息字串
+     */
+    public String getMessage(String path, Placeholders placeholders) {
+        return plugin.getLanguageManager().getMessage(path, placeholders);
+    }
+
     /**
      * 傳送語言檔中的訊息給指定的接收者
      * @param receiver 訊息接收者
@@ -106,4 +143,14 @@ public class MessageManager {
     public void sendConfigMessage(CommandSender receiver, String path, Map<String, String> placeholders) {
         sendMessage(receiver, getMessage(path, placeholders));
     }
+    
+    /**
+     * 傳送語言檔中的訊息給指定的接收者，並替換佔位符
+     * @param receiver 訊息接收者
+     * @param path 訊息路徑
+     * @param placeholders 佔位符參數
+     */
+    public void sendConfigMessage(CommandSender receiver, String path, Placeholders placeholders) {
+        sendMessage(receiver, getMessage(path, placeholders));
+    }
 }
@@ -0,0 +1,118 @@
+package dev.doeshing.koukeNekoNametag.core;
+
+import com.destroystokyo.paper.profile.PlayerProfile;
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 玩家名稱 -> UUID 解析器
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責把玩家名稱或UUID字串轉換成UUID
+ *
+ * 依序嘗試: UUID 字串、線上玩家索引、本快取、伺服器的玩家快取，
+ * 都沒有時才在非同步執行緒上查詢玩家資料 (可能需要連線)，主執行緒不會被阻塞。
+ * 成功的結果以 LRU 方式快取，找不到的名稱不快取。
+ */
+public class PlayerIdResolver {
+
+    private final KoukeNekoNametag plugin;
+    private final Map<String, UUID> cache; // 小寫名稱 -> UUID
+
+    public PlayerIdResolver(KoukeNekoNametag plugin) {
+        this.plugin = plugin;
+        int maxEntries = Math.max(1, plugin.getConfig().getInt("cache.player_ids.max_entries", 1000));
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<String, UUID>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UUID> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * 解析玩家名稱或UUID
+     * 只能在主執行緒呼叫；回傳的 future 可能在其他執行緒完成
+     *
+     * @param nameOrId 玩家名稱或UUID字串
+     * @return 完成時回傳UUID，找不到時為 null
+     */
+    public CompletableFuture<UUID> resolve(String nameOrId) {
+        UUID playerId = getCachedId(nameOrId);
+        if (playerId != null) {
+            return CompletableFuture.completedFuture(playerId);
+        }
+
+        String key = nameOrId.toLowerCase(Locale.ROOT);
+        CompletableFuture<UUID> result = new CompletableFuture<>();
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                PlayerProfile profile = Bukkit.createProfile(nameOrId);
+                UUID resolved = profile.complete(false) ? profile.getId() : null;
+                if (resolved != null) {
+                    cache.put(key, resolved);
+                }
+                result.complete(resolved);
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 不需要查詢即可得知的結果 (不會連線)
+     * @return UUID，需要非同步查詢時為 null
+     */
+    public UUID getCachedId(String nameOrId) {
+        UUID playerId = parseUuid(nameOrId);
+        if (playerId != null) {
+            return playerId;
+        }
+
+        playerId = plugin.getPlayerNameIndex().findExactId(nameOrId);
+        if (playerId != null) {
+            return playerId;
+        }
+
+        String key = nameOrId.toLowerCase(Locale.ROOT);
+        playerId = cache.get(key);
+        if (playerId != null) {
+            return playerId;
+        }
+
+        OfflinePlayer cached = Bukkit.getOfflinePlayerIfCached(nameOrId);
+        if (cached != null) {
+            cache.put(key, cached.getUniqueId());
+            return cached.getUniqueId();
+        }
+        return null;
+    }
+
+    /**
+     * 解析UUID (接受有或沒有連字號的格式)
+     * @return UUID，格式不符時為 null
+     */
+    public static UUID parseUuid(String value) {
+        String text = value.length() == 32
+                ? value.replaceFirst("(\\p{XDigit}{8})(\\p{XDigit}{4})(\\p{XDigit}{4})(\\p{XDigit}{4})(\\p{XDigit}{12})",
+                "$1-$2-$3-$4-$5")
+                : value;
+        if (text.length() != 36) {
+            return null;
+        }
+        try {
+            return UUID.fromString(text);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
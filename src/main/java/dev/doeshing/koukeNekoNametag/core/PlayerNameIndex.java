@@ -0,0 +1,106 @@
+package dev.doeshing.koukeNekoNametag.core;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 線上玩家名稱索引
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責以不分大小寫的名稱查找線上玩家
+ *
+ * 以小寫名稱為鍵的排序映射保存線上玩家，隨加入與離開事件增量更新。
+ * 前綴查找與精確查找都是對數時間，不需要在每次按鍵時走訪所有線上玩家。
+ * 底層為併發排序映射，非同步的自動完成執行緒也可以安全讀取。
+ */
+public class PlayerNameIndex implements Listener {
+
+    private final ConcurrentSkipListMap<String, Entry> players = new ConcurrentSkipListMap<>();
+
+    /**
+     * 索引中的單一玩家
+     */
+    private record Entry(UUID uniqueId, String name) {
+    }
+
+    /**
+     * 建立名稱索引並載入目前已在線上的玩家 (例如重新載入外掛時)
+     */
+    public PlayerNameIndex(Plugin plugin) {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            add(player);
+        }
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        add(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+        String key = player.getName().toLowerCase(Locale.ROOT);
+        players.computeIfPresent(key, (k, entry) -> entry.uniqueId().equals(player.getUniqueId()) ? null : entry);
+    }
+
+    private void add(Player player) {
+        players.put(player.getName().toLowerCase(Locale.ROOT), new Entry(player.getUniqueId(), player.getName()));
+    }
+
+    /**
+     * 以不分大小寫的前綴查找玩家名稱
+     *
+     * @param prefix 使用者輸入的前綴
+     * @param limit 最多回傳幾筆
+     * @return 依字母順序排列的玩家名稱
+     */
+    public List<String> findNamesByPrefix(String prefix, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        String key = prefix.toLowerCase(Locale.ROOT);
+        List<String> names = new ArrayList<>();
+        for (Map.Entry<String, Entry> entry : players.tailMap(key, true).entrySet()) {
+            if (names.size() >= limit || !entry.getKey().startsWith(key)) {
+                break;
+            }
+            names.add(entry.getValue().name());
+        }
+        return names;
+    }
+
+    /**
+     * 以完整名稱 (不分大小寫) 查找線上玩家的UUID
+     *
+     * @param name 玩家名稱
+     * @return 玩家UUID，如果不在線上則為 null
+     */
+    public UUID findExactId(String name) {
+        Entry entry = players.get(name.toLowerCase(Locale.ROOT));
+        return entry != null ? entry.uniqueId() : null;
+    }
+
+    /**
+     * 獲取索引中的玩家數量
+     */
+    public int size() {
+        return players.size();
+    }
+}
@@ -0,0 +1,105 @@
+package dev.doeshing.koukeNekoNametag.core;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.lang.LanguageManager;
+import dev.doeshing.koukeNekoNametag.core.template.CommandTemplateSet;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 外掛執行期設定組 (不可變)
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責保存一次載入所得到的設定、訊息、前綴與指令樣板
+ * - 不變性 (Immutability): 重新載入時整組替換，而不是逐項修改
+ *
+ * 由背景執行緒建立並驗證，完成後在主執行緒以單一參考寫入替換，
+ * 讀取端只會看到完整的舊設定組或完整的新設定組；建立失敗時保留原本的設定組。
+ */
+public final class RuntimeBundle {
+
+    private final FileConfiguration settings;
+    private final LanguageManager.CompiledLanguage language;
+    private final Component prefix;
+    private final CommandTemplateSet commandTemplates;
+
+    private RuntimeBundle(FileConfiguration settings, LanguageManager.CompiledLanguage language, Component prefix,
+                          CommandTemplateSet commandTemplates) {
+        this.settings = settings;
+        this.language = language;
+        this.prefix = prefix;
+        this.commandTemplates = commandTemplates;
+    }
+
+    /**
+     * 讀取 config.yml
+     * 與 JavaPlugin#reloadConfig 不同，格式錯誤時拋出例外而不是回傳空白設定
+     *
+     * @param plugin 外掛實例
+     * @return 以外掛內建設定作為預設值的設定
+     * @throws IOException 無法讀取設定檔
+     * @throws InvalidConfigurationException 設定檔格式錯誤
+     */
+    public static FileConfiguration loadSettings(KoukeNekoNametag plugin) throws IOException, InvalidConfigurationException {
+        YamlConfiguration settings = new YamlConfiguration();
+        File configFile = new File(plugin.getDataFolder(), "config.yml");
+        if (configFile.exists()) {
+            settings.load(configFile);
+        }
+
+        InputStream defaults = plugin.getResource("config.yml");
+        if (defaults != null) {
+            settings.setDefaults(YamlConfiguration.loadConfiguration(
+                    new InputStreamReader(defaults, StandardCharsets.UTF_8)));
+        }
+        return settings;
+    }
+
+    /**
+     * 以指定的設定建立完整的設定組
+     * 可在任何執行緒呼叫，不會影響目前使用中的設定組
+     *
+     * @param plugin 外掛實例
+     * @param settings 已載入的設定
+     * @return 驗證完成的設定組
+     * @throws IOException 無法讀取語言檔
+     * @throws InvalidConfigurationException 語言檔格式錯誤或沒有任何訊息
+     */
+    public static RuntimeBundle build(KoukeNekoNametag plugin, FileConfiguration settings)
+            throws IOException, InvalidConfigurationException {
+        LanguageManager.CompiledLanguage language = plugin.getLanguageManager()
+                .compile(settings.getString("language", "zh_TW"));
+        if (language.templates().isEmpty()) {
+            throw new InvalidConfigurationException("語言檔沒有任何訊息: " + language.file().getName());
+        }
+
+        Component prefix = LegacyComponentSerializer.legacyAmpersand()
+                .deserialize(settings.getString("prefix", "&7[&b&l🕹️&7]&f"));
+        return new RuntimeBundle(settings, language, prefix, CommandTemplateSet.compile(settings));
+    }
+
+    public FileConfiguration getSettings() {
+        return settings;
+    }
+
+    public LanguageManager.CompiledLanguage getLanguage() {
+        return language;
+    }
+
+    public Component getPrefix() {
+        return prefix;
+    }
+
+    public CommandTemplateSet getCommandTemplates() {
+        return commandTemplates;
+    }
+}
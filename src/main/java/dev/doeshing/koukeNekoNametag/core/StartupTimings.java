@@ -0,0 +1,115 @@
+package dev.doeshing.koukeNekoNametag.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.logging.Logger;
+
+/**
+ * 外掛啟動各階段的耗時紀錄
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責量測、記錄與回報啟動階段的耗時
+ *
+ * 各階段可在主執行緒或啟動執行緒上量測；結果在啟動完成後保留，供統計指令查詢。
+ */
+public final class StartupTimings {
+
+    private final Logger logger;
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Long> phases = new LinkedHashMap<>(); // 階段名稱 -> 耗時 (奈秒)，受 this 保護
+    private volatile long totalNanos = -1L;
+
+    public StartupTimings(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * 在目前的執行緒執行並量測一個階段
+     *
+     * @param phase 階段名稱
+     * @param task 階段內容
+     * @return 階段結果
+     * @throws Exception 階段執行失敗
+     */
+    public <T> T time(String phase, Callable<T> task) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return task.call();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 在目前的執行緒執行並量測一個沒有結果的階段
+     */
+    public void run(String phase, Runnable task) {
+        long start = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 在啟動執行緒上執行並量測一個階段
+     * 失敗時回傳的 Future 以 {@link CompletionException} 完成
+     *
+     * @param phase 階段名稱
+     * @param task 階段內容
+     * @param executor 啟動執行緒
+     * @return 階段結果
+     */
+    public <T> CompletableFuture<T> timeAsync(String phase, Callable<T> task, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return time(phase, task);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private void record(String phase, long elapsedNanos) {
+        synchronized (this) {
+            phases.put(phase, elapsedNanos);
+        }
+        logger.info(String.format("啟動階段 %s: %.1f ms (%s)", phase, elapsedNanos / 1_000_000.0,
+                Thread.currentThread().getName()));
+    }
+
+    /**
+     * 記錄啟動完成並輸出總耗時
+     */
+    public void finish() {
+        totalNanos = System.nanoTime() - startNanos;
+        logger.info(String.format("啟動完成，共 %.1f ms", getTotalMillis()));
+    }
+
+    /**
+     * 獲取各階段的耗時 (毫秒)，依完成順序排列
+     */
+    public synchronized List<Map.Entry<String, Double>> getPhaseMillis() {
+        List<Map.Entry<String, Double>> result = new ArrayList<>(phases.size());
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            result.add(Map.entry(phase.getKey(), phase.getValue() / 1_000_000.0));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * 獲取啟動總耗時 (毫秒)，尚未完成時為 -1
+     */
+    public double getTotalMillis() {
+        long total = totalNanos;
+        return total < 0 ? -1.0 : total / 1_000_000.0;
+    }
+}
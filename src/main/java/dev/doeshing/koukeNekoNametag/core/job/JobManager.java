@@ -0,0 +1,207 @@
+package dev.doeshing.koukeNekoNametag.core.job;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.lang.Placeholders;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * 背景工作管理器
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責在每個 tick 的時間預算內推進工作、回報進度與取消
+ *
+ * 所有工作共用同一份 tick 時間預算 (jobs.tick_budget_ms)，以輪流的方式各執行一步，
+ * 直到預算用完或沒有工作為止。沒有工作時不保留重複任務。只能在主執行緒使用。
+ */
+public class JobManager {
+
+    private final KoukeNekoNametag plugin;
+    private final Map<Integer, TickBudgetedJob> jobs = new LinkedHashMap<>();
+    private final Map<Integer, Long> lastProgressReport = new LinkedHashMap<>();
+    private BukkitTask task;
+    private int nextId = 1;
+    private long tickBudgetNanos;
+    private long progressIntervalNanos;
+
+    public JobManager(KoukeNekoNametag plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+
+    /**
+     * 重新讀取時間預算與進度回報間隔
+     */
+    public void reload() {
+        this.tickBudgetNanos = Math.max(1L, plugin.getConfig().getLong("jobs.tick_budget_ms", 5L)) * 1_000_000L;
+        this.progressIntervalNanos = Math.max(1L, plugin.getConfig().getLong("jobs.progress_interval_seconds", 5L))
+                * 1_000_000_000L;
+    }
+
+    /**
+     * 提交工作，從下一個 tick 開始執行
+     *
+     * @param job 要執行的工作
+     * @return 工作編號
+     */
+    public int submit(TickBudgetedJob job) {
+        int id = nextId++;
+        job.start(id);
+        jobs.put(id, job);
+        lastProgressReport.put(id, System.nanoTime());
+
+        notifyOwner(job, "job.started", Placeholders.of(
+                "id", String.valueOf(id),
+                "name", job.getName(),
+                "total", String.valueOf(job.getTotal())));
+
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+        return id;
+    }
+
+    /**
+     * 取消工作
+     *
+     * @param id 工作編號
+     * @return 是否找到並取消了執行中的工作
+     */
+    public boolean cancel(int id) {
+        TickBudgetedJob job = jobs.remove(id);
+        if (job == null) {
+            return false;
+        }
+        lastProgressReport.remove(id);
+        job.setState(TickBudgetedJob.State.CANCELLED);
+        job.onCancel();
+        notifyOwner(job, "job.cancelled", progressPlaceholders(job));
+        stopIfIdle();
+        return true;
+    }
+
+    /**
+     * 獲取執行中的工作
+     */
+    public List<TickBudgetedJob> getJobs() {
+        return new ArrayList<>(jobs.values());
+    }
+
+    /**
+     * 取消所有工作並停止排程
+     * 停用外掛時呼叫
+     */
+    public void shutdown() {
+        for (Integer id : new ArrayList<>(jobs.keySet())) {
+            cancel(id);
+        }
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * 在時間預算內輪流推進所有工作
+     */
+    private void tick() {
+        long start = System.nanoTime();
+        long deadline = start + tickBudgetNanos;
+
+        while (System.nanoTime() < deadline) {
+            boolean stepped = false;
+            Iterator<TickBudgetedJob> iterator = new ArrayList<>(jobs.values()).iterator();
+            while (iterator.hasNext() && System.nanoTime() < deadline) {
+                TickBudgetedJob job = iterator.next();
+                // 等待非同步結果的工作留到之後的 tick 再推進
+                if (!job.isWaiting()) {
+                    runStep(job);
+                    stepped = true;
+                }
+            }
+            if (!stepped) {
+                break;
+            }
+        }
+
+        reportProgress(System.nanoTime());
+        stopIfIdle();
+    }
+
+    private void runStep(TickBudgetedJob job) {
+        if (!job.isActive()) {
+            return;
+        }
+
+        boolean more;
+        try {
+            more = job.step();
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "背景工作 #" + job.getId() + " (" + job.getName() + ") 執行失敗", e);
+            finish(job, TickBudgetedJob.State.FAILED);
+            notifyOwner(job, "job.failed", Placeholders.of(
+                    "id", String.valueOf(job.getId()),
+                    "name", job.getName(),
+                    "error", String.valueOf(e.getMessage())));
+            return;
+        }
+
+        if (!more) {
+            finish(job, TickBudgetedJob.State.COMPLETED);
+            job.onFinish();
+        }
+    }
+
+    private void finish(TickBudgetedJob job, TickBudgetedJob.State state) {
+        jobs.remove(job.getId());
+        lastProgressReport.remove(job.getId());
+        job.setState(state);
+    }
+
+    /**
+     * 每隔 jobs.progress_interval_seconds 向工作的發起者回報進度
+     */
+    private void reportProgress(long now) {
+        for (TickBudgetedJob job : jobs.values()) {
+            Long last = lastProgressReport.get(job.getId());
+            if (last != null && now - last >= progressIntervalNanos) {
+                lastProgressReport.put(job.getId(), now);
+                notifyOwner(job, "job.progress", progressPlaceholders(job));
+            }
+        }
+    }
+
+    private void stopIfIdle() {
+        if (jobs.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private static Placeholders progressPlaceholders(TickBudgetedJob job) {
+        return Placeholders.of(
+                "id", String.valueOf(job.getId()),
+                "done", String.valueOf(job.getProcessed()),
+                "total", String.valueOf(job.getTotal()));
+    }
+
+    /**
+     * 傳送訊息給工作的發起者 (已離線的玩家略過)
+     */
+    public void notifyOwner(TickBudgetedJob job, String path, Placeholders placeholders) {
+        CommandSender owner = job.getOwner();
+        if (owner == null || (owner instanceof Player player && !player.isOnline())) {
+            return;
+        }
+        plugin.getMessageManager().sendConfigMessage(owner, path, placeholders);
+    }
+}
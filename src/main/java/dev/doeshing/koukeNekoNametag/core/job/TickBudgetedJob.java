@@ -0,0 +1,116 @@
+package dev.doeshing.koukeNekoNametag.core.job;
+
+import org.bukkit.command.CommandSender;
+
+/**
+ * 分段執行的背景工作
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 子類別只描述「一小步」要做什麼，排程與時間預算由 JobManager 負責
+ * - OCP (開放封閉原則): 新的批次操作只需要繼承此類別
+ *
+ * JobManager 每個 tick 在時間預算內反覆呼叫 {@link #step()}，
+ * 因此每一步都應該很短 (例如處理一小批玩家)。所有方法都在主執行緒呼叫。
+ */
+public abstract class TickBudgetedJob {
+
+    /**
+     * 工作狀態
+     */
+    public enum State {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        CANCELLED,
+        FAILED
+    }
+
+    private final String name;
+    private final CommandSender owner;
+    private final int total;
+    private int id;
+    private int processed;
+    private State state = State.PENDING;
+
+    /**
+     * @param name 顯示用的工作名稱
+     * @param owner 接收進度訊息的指令發送者，可為 null
+     * @param total 預計處理的項目數量
+     */
+    protected TickBudgetedJob(String name, CommandSender owner, int total) {
+        this.name = name;
+        this.owner = owner;
+        this.total = total;
+    }
+
+    /**
+     * 執行一小步工作
+     *
+     * @return 是否還有剩餘的工作
+     */
+    protected abstract boolean step();
+
+    /**
+     * 是否正在等待非同步結果 (例如權限儲存)
+     * 等待中的工作不會被呼叫 {@link #step()}，也不佔用時間預算
+     */
+    protected boolean isWaiting() {
+        return false;
+    }
+
+    /**
+     * 所有步驟執行完畢時呼叫
+     */
+    protected void onFinish() {
+    }
+
+    /**
+     * 工作被取消時呼叫
+     */
+    protected void onCancel() {
+    }
+
+    /**
+     * 記錄已處理的項目數量
+     */
+    protected void advance(int count) {
+        processed += count;
+    }
+
+    void start(int id) {
+        this.id = id;
+        this.state = State.RUNNING;
+    }
+
+    void setState(State state) {
+        this.state = state;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CommandSender getOwner() {
+        return owner;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getProcessed() {
+        return processed;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isActive() {
+        return state == State.RUNNING;
+    }
+}
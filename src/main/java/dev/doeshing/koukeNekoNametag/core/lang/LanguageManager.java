@@ -1,7 +1,10 @@
 package dev.doeshing.koukeNekoNametag.core.lang;
 
 import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
-import org.bukkit.configuration.file.FileConfiguration;
+import dev.doeshing.koukeNekoNametag.core.DataFiles;
+import dev.doeshing.koukeNekoNametag.core.DataFolderWatcher;
+import dev.doeshing.koukeNekoNametag.core.RuntimeBundle;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
@@ -9,29 +12,53 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * 語言管理器 - 處理多語言支持
+ * 
+ * 載入時會把所有訊息攤平成「完整路徑 -> 預先編譯樣板」的映射，
+ * 取得訊息時只需一次雜湊查找與單次樣板走訪。
+ * 編譯結果是 {@link RuntimeBundle} 的一部分，與設定和指令樣板一起以單一參考寫入替換；
+ * 此類別只負責編譯，不保存目前使用中的訊息。
  */
 public class LanguageManager {
+    private static final String MESSAGE_NOT_FOUND_PATH = "error.message_not_found";
+    private static final MessageTemplate DEFAULT_NOT_FOUND = MessageTemplate.compile("Message not found: {path}");
+    
     private final KoukeNekoNametag plugin;
-    private FileConfiguration langConfig;
-    private String language;
-    private File langFile;
+    
+    /**
+     * 編譯完成的語言檔 (不可變)
+     *
+     * @param language 實際使用的語言 (找不到要求的語言時為預設語言)
+     * @param file 語言檔
+     * @param templates 攤平後的訊息樣板 (不可修改)
+     * @param updatedContent 補上缺少訊息後的檔案內容，不需要更新時為 null
+     */
+    public record CompiledLanguage(String language, File file, Map<String, MessageTemplate> templates,
+                                   String updatedContent) {
+    }
     
     public LanguageManager(KoukeNekoNametag plugin) {
         this.plugin = plugin;
-        this.language = plugin.getConfig().getString("language", "zh_TW");
-        loadLanguage();
     }
     
     /**
-     * 載入語言文件
+     * 載入並編譯語言檔
+     * 可在任何執行緒呼叫，不會影響目前使用中的訊息；
+     * 缺少的訊息只在記憶體中補上，檔案由 {@link #persist(CompiledLanguage)} 在新內容生效後寫回
+     *
+     * @param requestedLanguage 設定中的語言
+     * @return 編譯結果
+     * @throws IOException 無法讀取語言檔
+     * @throws InvalidConfigurationException 語言檔格式錯誤
      */
-    private void loadLanguage() {
-        langFile = new File(plugin.getDataFolder(), "lang_" + language + ".yml");
+    public CompiledLanguage compile(String requestedLanguage) throws IOException, InvalidConfigurationException {
+        String language = requestedLanguage;
+        File langFile = new File(plugin.getDataFolder(), "lang_" + language + ".yml");
         
         // 如果語言文件不存在，嘗試從資源目錄儲存
         if (!langFile.exists()) {
@@ -44,7 +71,9 @@ public class LanguageManager {
                     plugin.getLogger().warning("找不到語言檔: " + language + "，使用默認語言");
                     language = "zh_TW";
                     langFile = new File(plugin.getDataFolder(), "lang_" + language + ".yml");
-                    plugin.saveResource("lang_" + language + ".yml", false);
+                    if (!langFile.exists()) {
+                        plugin.saveResource("lang_" + language + ".yml", false);
+                    }
                 }
             } catch (Exception e) {
                 plugin.getLogger().severe("無法儲存語言檔: " + e.getMessage());
@@ -52,21 +81,39 @@ public class LanguageManager {
             }
         }
         
-        // 載入語言文件
-        langConfig = YamlConfiguration.loadConfiguration(langFile);
+        // 載入語言文件 (格式錯誤時拋出例外，由呼叫端保留原本的訊息)
+        YamlConfiguration langConfig = new YamlConfiguration();
+        langConfig.load(langFile);
         
         // 檢查是否需要更新語言文件
-        checkForMissingMessages();
+        boolean updated = mergeMissingMessages(language, langConfig);
+        
+        return new CompiledLanguage(language, langFile, compileTemplates(langConfig),
+                updated ? langConfig.saveToString() : null);
     }
     
     /**
-     * 檢查語言文件中是否缺少訊息，如果缺少則更新
+     * 將語言檔中的所有訊息編譯為樣板
      */
-    private void checkForMissingMessages() {
+    private static Map<String, MessageTemplate> compileTemplates(YamlConfiguration langConfig) {
+        Map<String, MessageTemplate> compiled = new HashMap<>();
+        for (String key : langConfig.getKeys(true)) {
+            if (langConfig.isString(key)) {
+                compiled.put(key, MessageTemplate.compile(langConfig.getString(key)));
+            }
+        }
+        return Collections.unmodifiableMap(compiled);
+    }
+    
+    /**
+     * 以預設語言檔補上缺少的訊息 (只修改記憶體中的內容)
+     * @return 是否有補上任何訊息
+     */
+    private boolean mergeMissingMessages(String language, YamlConfiguration langConfig) {
         // 獲取默認的語言文件
         InputStream defaultLangStream = plugin.getResource("lang_" + language + ".yml");
         if (defaultLangStream == null) {
-            return;
+            return false;
         }
         
         // 載入默認語言文件
@@ -81,19 +128,41 @@ public class LanguageManager {
                 updated = true;
             }
         }
+        return updated;
+    }
+    
+    /**
+     * 將補上缺少訊息後的內容寫回語言檔
+     * 在新的語言內容生效後呼叫，不需要更新時不做任何事
+     */
+    public void persist(CompiledLanguage compiled) {
+        if (compiled.updatedContent() == null) {
+            return;
+        }
         
-        // 如果有更新，儲存文件
-        if (updated) {
-            try {
-                langConfig.save(langFile);
-                plugin.getLogger().info("語言檔已更新: " + langFile.getName());
-            } catch (IOException e) {
-                plugin.getLogger().severe("無法儲存更新的語言檔: " + e.getMessage());
-                plugin.getLogger().log(java.util.logging.Level.SEVERE, "IO異常堆疊追蹤: ", e); // 更強健的日誌記錄方式
+        try {
+            byte[] content = compiled.updatedContent().getBytes(StandardCharsets.UTF_8);
+            DataFolderWatcher watcher = plugin.getFileWatcher();
+            if (watcher != null) {
+                // 避免熱重載重新解析自己補上的訊息
+                watcher.recordOwnWrite(compiled.file().toPath(), content);
             }
+            DataFiles.writeAtomically(compiled.file().toPath(), content);
+            plugin.getLogger().info("語言檔已更新: " + compiled.file().getName());
+        } catch (IOException e) {
+            plugin.getLogger().severe("無法儲存更新的語言檔: " + e.getMessage());
+            plugin.getLogger().log(java.util.logging.Level.SEVERE, "IO異常堆疊追蹤: ", e); // 更強健的日誌記錄方式
         }
     }
     
+    /**
+     * 目前使用中的訊息樣板
+     */
+    private Map<String, MessageTemplate> currentTemplates() {
+        RuntimeBundle runtime = plugin.getRuntime();
+        return runtime != null ? runtime.getLanguage().templates() : Collections.emptyMap();
+    }
+    
     /**
      * 獲取訊息並替換佔位符
      * 
@@ -102,22 +171,37 @@ public class LanguageManager {
      * @return 替換後的訊息
      */
     public String getMessage(String path, Map<String, String> placeholders) {
-        String message = langConfig.getString(path);
+        return getMessage(path, Placeholders.fromMap(placeholders));
+    }
+    
+    /**
+     * 獲取訊息並替換佔位符
+     * 
+     * @param path 訊息路徑
+     * @param placeholders 佔位符參數
+     * @return 替換後的訊息
+     */
+    public String getMessage(String path, Placeholders placeholders) {
+        Map<String, MessageTemplate> current = currentTemplates();
+        MessageTemplate template = current.get(path);
         
         // 如果找不到指定路徑的訊息，返回錯誤訊息
-        if (message == null) {
-            String fallbackMessage = langConfig.getString("error.message_not_found", "Message not found: {path}");
-            return fallbackMessage.replace("{path}", path);
+        if (template == null) {
+            MessageTemplate fallback = current.getOrDefault(MESSAGE_NOT_FOUND_PATH, DEFAULT_NOT_FOUND);
+            return fallback.render(Placeholders.of("path", path, "message", path));
         }
         
-        // 替換佔位符
-        if (placeholders != null) {
-            for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-                message = message.replace("{" + entry.getKey() + "}", entry.getValue());
-            }
-        }
-        
-        return message;
+        return template.render(placeholders);
+    }
+    
+    /**
+     * 獲取預先編譯的訊息樣板
+     * 
+     * @param path 訊息路徑
+     * @return 訊息樣板，如果不存在則為 null
+     */
+    public MessageTemplate getTemplate(String path) {
+        return currentTemplates().get(path);
     }
     
     /**
@@ -127,7 +211,7 @@ public class LanguageManager {
      * @return 訊息內容
      */
     public String getMessage(String path) {
-        return getMessage(path, null);
+        return getMessage(path, Placeholders.none());
     }
     
     /**
@@ -164,10 +248,9 @@ public class LanguageManager {
     }
     
     /**
-     * 重新載入語言設定
+     * 獲取目前使用的語言檔名稱
      */
-    public void reload() {
-        this.language = plugin.getConfig().getString("language", "zh_TW");
-        loadLanguage();
+    public String getLanguageFileName() {
+        return plugin.getRuntime().getLanguage().file().getName();
     }
 }
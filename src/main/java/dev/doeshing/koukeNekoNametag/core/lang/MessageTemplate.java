@@ -0,0 +1,126 @@
+package dev.doeshing.koukeNekoNametag.core.lang;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 預先編譯的語言訊息樣板 (不可變值物件)
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責把訊息切成文字片段與佔位符名稱
+ * - 不變性 (Immutability): 編譯後不再修改，可安全共享
+ *
+ * 訊息在載入語言檔時就切成「文字片段 + 佔位符」交錯的陣列，
+ * 產生訊息時只需單次走訪，沒有佔位符的訊息直接回傳原字串。
+ */
+public final class MessageTemplate {
+
+    private final String source;     // 原始訊息
+    private final String[] literals; // 文字片段，長度為 keys.length + 1
+    private final String[] keys;     // 片段之間的佔位符名稱 (不含大括號)
+    private final int literalLength; // 文字片段總長度，用於預估輸出大小
+
+    private MessageTemplate(String source, String[] literals, String[] keys) {
+        this.source = source;
+        this.literals = literals;
+        this.keys = keys;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * 編譯訊息樣板
+     * 佔位符格式為 {名稱}，名稱只能包含英數字、底線與連字號，其他大括號保留為一般文字
+     *
+     * @param source 原始訊息
+     * @return 編譯後的樣板
+     */
+    public static MessageTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+
+        int literalStart = 0;
+        int index = source.indexOf('{');
+        while (index >= 0) {
+            int end = findPlaceholderEnd(source, index);
+            if (end < 0) {
+                index = source.indexOf('{', index + 1);
+                continue;
+            }
+            literals.add(source.substring(literalStart, index));
+            keys.add(source.substring(index + 1, end));
+            literalStart = end + 1;
+            index = source.indexOf('{', literalStart);
+        }
+        literals.add(source.substring(literalStart));
+
+        return new MessageTemplate(source, literals.toArray(new String[0]), keys.toArray(new String[0]));
+    }
+
+    /**
+     * 找出佔位符的右大括號位置
+     * @return 右大括號索引，若不是合法佔位符則為 -1
+     */
+    private static int findPlaceholderEnd(String source, int openIndex) {
+        int index = openIndex + 1;
+        while (index < source.length()) {
+            char c = source.charAt(index);
+            if (c == '}') {
+                return index > openIndex + 1 ? index : -1;
+            }
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-') {
+                return -1;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    /**
+     * 以單次走訪產生訊息
+     * 未提供值的佔位符會保留原本的文字
+     *
+     * @param placeholders 佔位符參數
+     * @return 產生的訊息
+     */
+    public String render(Placeholders placeholders) {
+        if (keys.length == 0) {
+            return source;
+        }
+
+        StringBuilder out = new StringBuilder(literalLength + keys.length * 16);
+        out.append(literals[0]);
+        for (int i = 0; i < keys.length; i++) {
+            String value = placeholders.get(keys[i]);
+            if (value != null) {
+                out.append(value);
+            } else {
+                out.append('{').append(keys[i]).append('}');
+            }
+            out.append(literals[i + 1]);
+        }
+        return out.toString();
+    }
+
+    /**
+     * 是否不含任何佔位符
+     */
+    public boolean isStatic() {
+        return keys.length == 0;
+    }
+
+    /**
+     * 獲取原始訊息
+     */
+    public String getSource() {
+        return source;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
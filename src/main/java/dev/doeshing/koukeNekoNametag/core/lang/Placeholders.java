@@ -0,0 +1,84 @@
+package dev.doeshing.koukeNekoNametag.core.lang;
+
+import java.util.Map;
+
+/**
+ * 訊息佔位符參數 (不可變值物件)
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責攜帶少量的佔位符名稱與值
+ *
+ * 大部分訊息只有一到四個佔位符，以固定大小的陣列保存並線性查找，
+ * 比每則訊息建立一個 HashMap 更省配置。
+ */
+public final class Placeholders {
+
+    private static final Placeholders NONE = new Placeholders(new String[0], new String[0]);
+
+    private final String[] keys;
+    private final String[] values;
+
+    private Placeholders(String[] keys, String[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * 沒有任何佔位符
+     */
+    public static Placeholders none() {
+        return NONE;
+    }
+
+    public static Placeholders of(String key, String value) {
+        return new Placeholders(new String[]{key}, new String[]{value});
+    }
+
+    public static Placeholders of(String key1, String value1, String key2, String value2) {
+        return new Placeholders(new String[]{key1, key2}, new String[]{value1, value2});
+    }
+
+    public static Placeholders of(String key1, String value1, String key2, String value2,
+                                  String key3, String value3) {
+        return new Placeholders(new String[]{key1, key2, key3}, new String[]{value1, value2, value3});
+    }
+
+    public static Placeholders of(String key1, String value1, String key2, String value2,
+                                  String key3, String value3, String key4, String value4) {
+        return new Placeholders(new String[]{key1, key2, key3, key4}, new String[]{value1, value2, value3, value4});
+    }
+
+    /**
+     * 由舊式的佔位符映射轉換
+     * @param placeholders 佔位符和值的映射，可為 null
+     */
+    public static Placeholders fromMap(Map<String, String> placeholders) {
+        if (placeholders == null || placeholders.isEmpty()) {
+            return NONE;
+        }
+
+        String[] keys = new String[placeholders.size()];
+        String[] values = new String[placeholders.size()];
+        int index = 0;
+        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
+            keys[index] = entry.getKey();
+            values[index] = entry.getValue();
+            index++;
+        }
+        return new Placeholders(keys, values);
+    }
+
+    /**
+     * 查找佔位符的值
+     * @param key 佔位符名稱 (不含大括號)
+     * @return 替換值，如果不存在則為 null
+     */
+    public String get(String key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+}
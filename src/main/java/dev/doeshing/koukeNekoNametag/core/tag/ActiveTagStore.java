@@ -0,0 +1,365 @@
+package dev.doeshing.koukeNekoNametag.core.tag;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.DataFiles;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 玩家啟用標籤的持久化儲存
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責記錄每位玩家選擇的標籤，並在玩家加入時交由 TagManager 還原
+ *
+ * 記憶體中以UUID對應到標籤編號 (標籤ID只在符號表中保存一次)，查詢為常數時間，任何執行緒都可以讀取。
+ * 檔案為只附加的紀錄檔: 每次變更只在尾端附加一筆紀錄，由 {@link WriteBehindFlusher} 在背景合併寫入；
+ * 過期紀錄累積到一定數量後，同一個背景執行緒會以目前的狀態重寫檔案 (暫存檔 + 原子改名)。
+ *
+ * 紀錄檔經過壓縮後很小，在建立時同步讀取，讀取完成前不會接受任何變更；
+ * 玩家的標籤在 AsyncPlayerPreLoginEvent 中解析，加入時主執行緒只需要套用已解析的結果。
+ */
+public class ActiveTagStore implements Listener {
+
+    private static final int FILE_MAGIC = 0x4B4E4154; // "KNAT"
+    private static final int FILE_VERSION = 1;
+    private static final byte RECORD_DEFINE = 1; // 符號表: 編號 -> 標籤ID
+    private static final byte RECORD_SET = 2;    // 玩家 -> 標籤編號
+    private static final byte RECORD_CLEAR = 3;  // 移除玩家的標籤
+    private static final int MIN_COMPACT_RECORDS = 1024; // 紀錄數至少達到此數量才考慮壓縮
+
+    private final KoukeNekoNametag plugin;
+    private final Map<UUID, Integer> activeTags = new ConcurrentHashMap<>(); // 玩家 -> 標籤編號
+    private final List<String> symbols = new CopyOnWriteArrayList<>();      // 標籤編號 -> 標籤ID
+    private final Map<String, Integer> symbolIndex = new HashMap<>();        // 標籤ID -> 標籤編號 (受 this 保護)
+    private final Map<UUID, Tag> pendingRestores = new ConcurrentHashMap<>(); // 登入前已解析、等待加入時套用
+    private final File logFile;
+    private final PersistenceMetrics metrics = new PersistenceMetrics();
+    private final WriteBehindFlusher flusher;
+    private final long flushTimeoutMillis;
+
+    // 以下欄位受 this 保護
+    private ByteArrayOutputStream pendingRecords = new ByteArrayOutputStream();
+    private int logRecords;          // 目前檔案 (含尚未寫入部分) 的紀錄數
+    private boolean rewriteRequired; // 檔案不存在、損毀或附加失敗時，下次寫回改為重寫整個檔案
+
+    public ActiveTagStore(KoukeNekoNametag plugin) {
+        this.plugin = plugin;
+        this.logFile = new File(plugin.getDataFolder(),
+                plugin.getConfig().getString("files.active_tags_file", "active_tags.log"));
+        this.flushTimeoutMillis = plugin.getConfig().getLong("storage.shutdown_flush_timeout_ms", 5000L);
+        // 先重播紀錄檔，再開始接受變更與寫回，避免記憶體中的符號編號與檔案衝突
+        load();
+        this.flusher = new WriteBehindFlusher(
+                "KoukeNeko-ActiveTagWriter",
+                plugin.getLogger(),
+                plugin.getConfig().getLong("storage.flush_interval_ms", 1000L),
+                metrics,
+                this::writeLog);
+        if (rewriteRequired && logFile.exists()) {
+            // 損毀的檔案不等下一次變更，直接以讀到的內容重寫
+            flusher.markDirty();
+        }
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * 獲取玩家目前的標籤ID
+     * 任何執行緒都可以呼叫
+     *
+     * @param playerId 玩家UUID
+     * @return 標籤ID，沒有選擇標籤時為 null
+     */
+    public String getActiveTagId(UUID playerId) {
+        Integer index = activeTags.get(playerId);
+        return index != null ? symbols.get(index) : null;
+    }
+
+    /**
+     * 記錄玩家選擇的標籤
+     */
+    public void setActiveTag(UUID playerId, String tagId) {
+        synchronized (this) {
+            int index = symbolIndex.computeIfAbsent(tagId, this::defineSymbol);
+            Integer previous = activeTags.put(playerId, index);
+            if (previous != null && previous == index) {
+                return;
+            }
+            appendPlayerRecord(RECORD_SET, playerId, index);
+        }
+        flusher.markDirty();
+    }
+
+    /**
+     * 移除玩家的標籤紀錄
+     */
+    public void clearActiveTag(UUID playerId) {
+        synchronized (this) {
+            if (activeTags.remove(playerId) == null) {
+                return;
+            }
+            appendPlayerRecord(RECORD_CLEAR, playerId, -1);
+        }
+        flusher.markDirty();
+    }
+
+    /**
+     * 移除所有選擇指定標籤的玩家紀錄
+     * 標籤被刪除後呼叫，避免玩家下次加入時仍嘗試還原
+     *
+     * @param tagId 標籤ID
+     * @return 被移除紀錄的玩家數量
+     */
+    public int clearTag(String tagId) {
+        int cleared = 0;
+        synchronized (this) {
+            Integer index = symbolIndex.get(tagId);
+            if (index != null) {
+                Iterator<Map.Entry<UUID, Integer>> iterator = activeTags.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<UUID, Integer> entry = iterator.next();
+                    if (entry.getValue().equals(index)) {
+                        iterator.remove();
+                        appendPlayerRecord(RECORD_CLEAR, entry.getKey(), -1);
+                        cleared++;
+                    }
+                }
+            }
+        }
+        pendingRestores.values().removeIf(tag -> tag.getId().equals(tagId));
+        if (cleared > 0) {
+            flusher.markDirty();
+        }
+        return cleared;
+    }
+
+    /**
+     * 獲取有標籤紀錄的玩家數量
+     */
+    public int size() {
+        return activeTags.size();
+    }
+
+    /**
+     * 登入前在非同步執行緒解析玩家的標籤
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+
+        String tagId = getActiveTagId(event.getUniqueId());
+        if (tagId == null) {
+            return;
+        }
+        Tag tag = plugin.getTagManager().getTag(tagId);
+        if (tag != null) {
+            pendingRestores.put(event.getUniqueId(), tag);
+        }
+    }
+
+    /**
+     * 加入時套用登入前解析的標籤
+     * 延後一個 tick，讓顯示相關的外掛先完成玩家初始化
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        Tag tag = pendingRestores.remove(player.getUniqueId());
+        if (tag == null) {
+            return;
+        }
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            if (player.isOnline()) {
+                plugin.getTagManager().restoreActiveTag(player, tag);
+            }
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        // 登入被其他外掛拒絕時不會觸發加入事件，離開時一併清除
+        pendingRestores.remove(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * 停用外掛時在時間上限內寫回紀錄
+     */
+    public void close() {
+        flusher.shutdown(flushTimeoutMillis);
+    }
+
+    /**
+     * 新增符號並附加定義紀錄
+     * 只在持有 this 鎖時呼叫
+     */
+    private int defineSymbol(String tagId) {
+        int index = symbols.size();
+        symbols.add(tagId);
+        try {
+            DataOutputStream out = new DataOutputStream(pendingRecords);
+            out.writeByte(RECORD_DEFINE);
+            out.writeInt(index);
+            out.writeUTF(tagId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // 寫入記憶體不會失敗
+        }
+        logRecords++;
+        return index;
+    }
+
+    /**
+     * 附加玩家紀錄
+     * 只在持有 this 鎖時呼叫
+     */
+    private void appendPlayerRecord(byte type, UUID playerId, int index) {
+        try {
+            writePlayerRecord(new DataOutputStream(pendingRecords), type, playerId, index);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // 寫入記憶體不會失敗
+        }
+        logRecords++;
+    }
+
+    private static void writePlayerRecord(DataOutputStream out, byte type, UUID playerId, int index) throws IOException {
+        out.writeByte(type);
+        out.writeLong(playerId.getMostSignificantBits());
+        out.writeLong(playerId.getLeastSignificantBits());
+        if (type == RECORD_SET) {
+            out.writeInt(index);
+        }
+    }
+
+    /**
+     * 讀取紀錄檔並依序重播
+     * 只在建立時執行；尾端不完整的紀錄 (例如寫入時當機) 會被捨棄，並在下次寫回時重寫檔案
+     */
+    private synchronized void load() {
+        if (!logFile.exists()) {
+            rewriteRequired = true;
+            return;
+        }
+        replay();
+        plugin.getLogger().info("已載入 " + activeTags.size() + " 位玩家的啟用標籤");
+    }
+
+    /**
+     * 重播紀錄檔
+     * 只在持有 this 鎖時呼叫
+     */
+    private void replay() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(logFile)))) {
+            if (in.readInt() != FILE_MAGIC || in.readUnsignedByte() != FILE_VERSION) {
+                plugin.getLogger().warning("無法辨識的啟用標籤紀錄檔格式: " + logFile.getName());
+                rewriteRequired = true;
+                return;
+            }
+
+            while (true) {
+                int type = in.read();
+                if (type < 0) {
+                    break;
+                }
+                if (type == RECORD_DEFINE) {
+                    int index = in.readInt();
+                    String tagId = in.readUTF();
+                    if (index != symbols.size()) {
+                        throw new IOException("符號編號不連續: " + index);
+                    }
+                    symbols.add(tagId);
+                    symbolIndex.put(tagId, index);
+                } else {
+                    UUID playerId = new UUID(in.readLong(), in.readLong());
+                    if (type == RECORD_SET) {
+                        int index = in.readInt();
+                        if (index < 0 || index >= symbols.size()) {
+                            throw new IOException("未定義的符號編號: " + index);
+                        }
+                        activeTags.put(playerId, index);
+                    } else if (type == RECORD_CLEAR) {
+                        activeTags.remove(playerId);
+                    } else {
+                        throw new IOException("未知的紀錄類型: " + type);
+                    }
+                }
+                logRecords++;
+            }
+        } catch (EOFException e) {
+            plugin.getLogger().warning("啟用標籤紀錄檔尾端不完整，已捨棄最後一筆紀錄");
+            rewriteRequired = true;
+        } catch (IOException e) {
+            plugin.getLogger().warning("讀取啟用標籤紀錄檔失敗: " + e.getMessage());
+            rewriteRequired = true;
+        }
+    }
+
+    /**
+     * 寫回紀錄
+     * 只在背景寫入執行緒上執行: 一般情況只附加新紀錄；
+     * 需要時 (過期紀錄過多、檔案不存在或曾經附加失敗) 改為重寫整個檔案
+     */
+    private void writeLog() throws IOException {
+        byte[] appended;
+        byte[] snapshot = null;
+        synchronized (this) {
+            int liveRecords = activeTags.size() + symbols.size();
+            if (rewriteRequired || (logRecords >= MIN_COMPACT_RECORDS && logRecords > liveRecords * 2)) {
+                snapshot = encodeSnapshot();
+                logRecords = liveRecords;
+                rewriteRequired = false;
+            }
+            appended = pendingRecords.toByteArray();
+            pendingRecords = new ByteArrayOutputStream();
+        }
+
+        Path target = logFile.toPath();
+        try {
+            if (snapshot != null) {
+                DataFiles.writeAtomically(target, snapshot);
+            } else if (appended.length > 0) {
+                Files.write(target, appended, StandardOpenOption.APPEND);
+            }
+        } catch (IOException e) {
+            // 尚未寫入的紀錄已從緩衝區取出，下次改為以目前狀態重寫整個檔案
+            synchronized (this) {
+                rewriteRequired = true;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 以目前的狀態編碼完整的紀錄檔
+     * 只在持有 this 鎖時呼叫；快照已包含緩衝區中的所有變更
+     */
+    private byte[] encodeSnapshot() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeInt(FILE_MAGIC);
+        out.writeByte(FILE_VERSION);
+        for (int index = 0; index < symbols.size(); index++) {
+            out.writeByte(RECORD_DEFINE);
+            out.writeInt(index);
+            out.writeUTF(symbols.get(index));
+        }
+        for (Map.Entry<UUID, Integer> entry : activeTags.entrySet()) {
+            writePlayerRecord(out, RECORD_SET, entry.getKey(), entry.getValue());
+        }
+        out.flush();
+        return buffer.toByteArray();
+    }
+}
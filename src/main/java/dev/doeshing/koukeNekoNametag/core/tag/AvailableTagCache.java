@@ -0,0 +1,129 @@
+package dev.doeshing.koukeNekoNametag.core.tag;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 玩家可用標籤快取
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責保存每位玩家擁有的標籤清單
+ *
+ * 快取項目記錄建立時的目錄版本，目錄變更後自動失效；
+ * 玩家權限變更 (LuckPerms 重新計算或本外掛的給予/移除) 時只清除該玩家的項目。
+ * 快取有數量上限，並在玩家離線時移除。
+ */
+public class AvailableTagCache implements Listener {
+
+    private final Map<UUID, CachedTags> entries;
+    private final AtomicLong invalidations = new AtomicLong(); // 失效次數，用於避免覆寫期間失效的結果
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * 快取項目
+     */
+    private static final class CachedTags {
+        private final long catalogVersion;
+        private final List<Tag> tags;
+
+        private CachedTags(long catalogVersion, List<Tag> tags) {
+            this.catalogVersion = catalogVersion;
+            this.tags = tags;
+        }
+    }
+
+    /**
+     * 建立玩家可用標籤快取
+     * @param plugin 外掛實例
+     */
+    public AvailableTagCache(KoukeNekoNametag plugin) {
+        int maxEntries = Math.max(1, plugin.getConfig().getInt("cache.available_tags.max_players", 500));
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<UUID, CachedTags>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, CachedTags> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * 獲取玩家的可用標籤，快取不存在或已過期時以 loader 重新計算
+     *
+     * @param playerId 玩家UUID
+     * @param catalogVersion 目前的目錄版本
+     * @param loader 重新計算可用標籤的方法
+     * @return 不可修改的可用標籤清單
+     */
+    public List<Tag> getOrCompute(UUID playerId, long catalogVersion, Supplier<List<Tag>> loader) {
+        CachedTags entry = entries.get(playerId);
+        if (entry != null && entry.catalogVersion == catalogVersion) {
+            hits.incrementAndGet();
+            return entry.tags;
+        }
+
+        misses.incrementAndGet();
+        long stamp = invalidations.get();
+        List<Tag> tags = Collections.unmodifiableList(loader.get());
+
+        // 計算期間若有權限變更，結果可能已過期，不寫入快取
+        synchronized (entries) {
+            if (invalidations.get() == stamp) {
+                entries.put(playerId, new CachedTags(catalogVersion, tags));
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * 清除指定玩家的快取
+     * 可由非同步執行緒呼叫 (例如 LuckPerms 事件)
+     *
+     * @param playerId 玩家UUID
+     */
+    public void invalidate(UUID playerId) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.remove(playerId);
+        }
+    }
+
+    /**
+     * 清除所有快取
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * 玩家離線時移除快取
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        invalidate(event.getPlayer().getUniqueId());
+    }
+}
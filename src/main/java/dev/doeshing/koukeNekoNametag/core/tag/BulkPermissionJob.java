@@ -0,0 +1,130 @@
+package dev.doeshing.koukeNekoNametag.core.tag;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.job.TickBudgetedJob;
+import dev.doeshing.koukeNekoNametag.core.lang.Placeholders;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 批次給予或移除標籤權限的背景工作
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責把目標玩家切成小批並交給 TagManager 的批次權限 API
+ *
+ * 每一步處理 jobs.batch_size 位玩家；權限的實際儲存可能非同步完成 (LuckPerms)，
+ * 因此同一時間只有一批在儲存中，該批完成後才送出下一批並計入進度。
+ * 取消工作時只有已送出的那一批會繼續完成。
+ * 權限服務不支援離線玩家時，離線的目標改為排入 {@link PendingGrantQueue}，並另外回報數量。
+ */
+public class BulkPermissionJob extends TickBudgetedJob {
+
+    private final KoukeNekoNametag plugin;
+    private final TagManager tagManager;
+    private final Tag tag;
+    private final boolean grant;
+    private final List<UUID> targets;
+    private final int batchSize;
+    private final AtomicInteger succeeded = new AtomicInteger();
+    private int queued;
+    private CompletableFuture<Void> inFlight; // 儲存中的批次，沒有時為 null
+    private int inFlightSize;
+    private int index;
+
+    /**
+     * @param plugin 外掛實例
+     * @param tagManager 標籤管理器
+     * @param owner 發起者，用於回報進度
+     * @param tag 要給予或移除的標籤
+     * @param grant true 為給予，false 為移除
+     * @param targets 目標玩家UUID (不重複)
+     */
+    public BulkPermissionJob(KoukeNekoNametag plugin, TagManager tagManager, CommandSender owner,
+                             Tag tag, boolean grant, List<UUID> targets) {
+        super((grant ? "grant " : "revoke ") + tag.getId(), owner, targets.size());
+        this.plugin = plugin;
+        this.tagManager = tagManager;
+        this.tag = tag;
+        this.grant = grant;
+        this.targets = targets;
+        this.batchSize = Math.max(1, plugin.getConfig().getInt("jobs.batch_size", 25));
+    }
+
+    @Override
+    protected boolean isWaiting() {
+        return inFlight != null && !inFlight.isDone();
+    }
+
+    @Override
+    protected boolean step() {
+        if (inFlight != null) {
+            // 上一批已儲存完成
+            advance(inFlightSize);
+            inFlight = null;
+        }
+        if (index >= targets.size()) {
+            return false;
+        }
+
+        int end = Math.min(index + batchSize, targets.size());
+        List<UUID> batch = collectDirectTargets(targets.subList(index, end));
+        inFlight = tagManager.applyTagPermissionBatch(batch, tag, grant)
+                .handle((count, throwable) -> {
+                    if (throwable != null) {
+                        plugin.getLogger().warning("批次權限操作失敗 (" + tag.getPermission() + "): "
+                                + throwable.getMessage());
+                    } else {
+                        succeeded.addAndGet(count);
+                    }
+                    return null;
+                });
+        inFlightSize = end - index;
+        index = end;
+        return true;
+    }
+
+    /**
+     * 挑出可以直接套用的玩家，其餘的排入待處理佇列
+     * 直接套用的玩家捨棄同一標籤的舊待處理操作，避免加入時被覆蓋
+     */
+    private List<UUID> collectDirectTargets(List<UUID> batch) {
+        PendingGrantQueue queue = plugin.getPendingGrantQueue();
+        boolean offlineSupported = tagManager.supportsOfflineTargets();
+        List<UUID> direct = new ArrayList<>(batch.size());
+        for (UUID playerId : batch) {
+            if (offlineSupported || Bukkit.getPlayer(playerId) != null) {
+                queue.discard(playerId, tag.getId());
+                direct.add(playerId);
+            } else {
+                queue.enqueue(playerId, tag.getId(), grant);
+                queued++;
+            }
+        }
+        return direct;
+    }
+
+    /**
+     * 所有批次都已儲存完成，回報結果
+     */
+    @Override
+    protected void onFinish() {
+        reportResult();
+    }
+
+    private void reportResult() {
+        int success = succeeded.get();
+        plugin.getJobManager().notifyOwner(this, grant ? "job.grant_completed" : "job.revoke_completed",
+                Placeholders.of(
+                        "id", String.valueOf(getId()),
+                        "display", tag.getDisplay(),
+                        "success", String.valueOf(success),
+                        "queued", String.valueOf(queued),
+                        "failed", String.valueOf(targets.size() - queued - success)));
+    }
+}
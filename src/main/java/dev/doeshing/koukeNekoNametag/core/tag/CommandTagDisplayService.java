@@ -1,7 +1,7 @@
 package dev.doeshing.koukeNekoNametag.core.tag;
 
-import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
-import org.bukkit.Bukkit;
+import dev.doeshing.koukeNekoNametag.core.template.CommandTemplate;
+import dev.doeshing.koukeNekoNametag.core.template.CommandTemplateRegistry;
 import org.bukkit.entity.Player;
 
 import java.util.List;
@@ -16,10 +16,10 @@ import java.util.List;
  */
 public class CommandTagDisplayService implements TagDisplayService {
     
-    private final KoukeNekoNametag plugin;
+    private final CommandTemplateRegistry commandTemplates;
     
-    public CommandTagDisplayService(KoukeNekoNametag plugin) {
-        this.plugin = plugin;
+    public CommandTagDisplayService(CommandTemplateRegistry commandTemplates) {
+        this.commandTemplates = commandTemplates;
     }
     
     @Override
@@ -28,38 +28,35 @@ public class CommandTagDisplayService implements TagDisplayService {
             return false;
         }
         
+        // 先移除現有標籤
+        removeActiveTag(player);
+        
         // SRP: 專門處理標籤設定邏輯
-        List<String> commands = plugin.getConfig().getStringList("command.settag");
-        return executeDisplayCommands(commands, player, tag.getDisplay());
+        return executeDisplayCommands(commandTemplates.getTemplates().getSetTag(), player, tag.getDisplay());
     }
     
     @Override
     public boolean removeActiveTag(Player player) {
         // SRP: 專門處理標籤移除邏輯
-        List<String> commands = plugin.getConfig().getStringList("command.remove");
-        return executeDisplayCommands(commands, player, null);
+        return executeDisplayCommands(commandTemplates.getTemplates().getRemove(), player, null);
+    }
+    
+    @Override
+    public void onCatalogChanged(TagCatalog catalog) {
+        // 指令式顯示不需要依目錄建立資源
+    }
+    
+    @Override
+    public void shutdown() {
+        // 顯示狀態由外部插件保存，不需要清理
     }
     
     /**
      * 執行顯示相關指令
      * 遵循DRY (Don't Repeat Yourself) 原則，避免重複程式碼
      */
-    private boolean executeDisplayCommands(List<String> commands, Player player, String tagDisplay) {
-        boolean logCommands = plugin.getConfig().getBoolean("debug.log_commands", true);
-        
-        for (String cmd : commands) {
-            cmd = cmd.replace("{player}", player.getName());
-            if (tagDisplay != null) {
-                cmd = cmd.replace("{tag}", tagDisplay);
-            }
-            
-            if (logCommands) {
-                plugin.getLogger().info("執行顯示指令: " + cmd);
-            }
-            
-            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), cmd);
-        }
-        
+    private boolean executeDisplayCommands(List<CommandTemplate> commands, Player player, String tagDisplay) {
+        commandTemplates.dispatch(commands, "執行顯示指令: ", player.getName(), tagDisplay, null);
         return true;
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,15 @@
 package dev.doeshing.koukeNekoNametag.core.tag;
 
-import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.template.CommandTemplate;
+import dev.doeshing.koukeNekoNametag.core.template.CommandTemplateRegistry;
+import dev.doeshing.koukeNekoNametag.core.template.CommandTemplateSet;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 基於指令的標籤權限服務實作
@@ -16,10 +21,10 @@ import java.util.List;
  */
 public class CommandTagPermissionService implements TagPermissionService {
     
-    private final KoukeNekoNametag plugin;
+    private final CommandTemplateRegistry commandTemplates;
     
-    public CommandTagPermissionService(KoukeNekoNametag plugin) {
-        this.plugin = plugin;
+    public CommandTagPermissionService(CommandTemplateRegistry commandTemplates) {
+        this.commandTemplates = commandTemplates;
     }
     
     @Override
@@ -29,7 +34,7 @@ public class CommandTagPermissionService implements TagPermissionService {
         }
         
         // SRP: 專門處理權限給予邏輯
-        return executePermissionCommands("command.add_permission", player, tag);
+        return executePermissionCommands(commandTemplates.getTemplates().getAddPermission(), player, tag);
     }
     
     @Override
@@ -39,7 +44,7 @@ public class CommandTagPermissionService implements TagPermissionService {
         }
         
         // SRP: 專門處理權限移除邏輯
-        return executePermissionCommands("command.remove_permission", player, tag);
+        return executePermissionCommands(commandTemplates.getTemplates().getRemovePermission(), player, tag);
     }
     
     @Override
@@ -48,24 +53,50 @@ public class CommandTagPermissionService implements TagPermissionService {
     }
     
     /**
-     * 執行權限相關指令
-     * 遵循DRY (Don't Repeat Yourself) 原則，避免重複程式碼
+     * 批次執行權限指令
+     * 指令樣板只能以玩家名稱執行，未曾進入伺服器的玩家改用UUID (LuckPerms 指令接受UUID)
+     * 只計入指令全部執行成功的玩家
      */
-    private boolean executePermissionCommands(String configPath, Player player, Tag tag) {
-        List<String> commands = plugin.getConfig().getStringList(configPath);
-        boolean logCommands = plugin.getConfig().getBoolean("debug.log_commands", true);
+    @Override
+    public CompletableFuture<Integer> applyPermissionBatch(Collection<UUID> playerIds, Tag tag, boolean grant) {
+        CommandTemplateSet templates = commandTemplates.getTemplates();
+        List<CommandTemplate> commands = grant ? templates.getAddPermission() : templates.getRemovePermission();
         
-        for (String cmd : commands) {
-            cmd = cmd.replace("{player}", player.getName())
-                    .replace("{tag}", tag.getPermission());
-            
-            if (logCommands) {
-                plugin.getLogger().info("執行權限指令: " + cmd);
+        int count = 0;
+        for (UUID playerId : playerIds) {
+            String name = Bukkit.getOfflinePlayer(playerId).getName();
+            if (commandTemplates.dispatch(commands, "執行權限指令: ", name != null ? name : playerId.toString(),
+                    tag.getPermission(), null)) {
+                count++;
             }
-            
-            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), cmd);
         }
-        
-        return true;
+        return CompletableFuture.completedFuture(count);
+    }
+    
+    /**
+     * 執行 remove_permission_all 指令樣板
+     * 指令由權限外掛自行處理，因此無法得知實際影響的玩家數量
+     */
+    @Override
+    public CompletableFuture<Integer> revokeFromAll(Tag tag) {
+        commandTemplates.dispatch(commandTemplates.getTemplates().getRemovePermissionAll(),
+                "執行移除所有玩家標籤權限指令: ", null, tag.getPermission(), tag.getDisplay());
+        return CompletableFuture.completedFuture(-1);
+    }
+    
+    /**
+     * 指令樣板可能依賴只對線上玩家有效的外掛，離線玩家一律排入待處理佇列
+     */
+    @Override
+    public boolean supportsOfflineTargets() {
+        return false;
+    }
+    
+    /**
+     * 執行權限相關指令
+     * 遵循DRY (Don't Repeat Yourself) 原則，避免重複程式碼
+     */
+    private boolean executePermissionCommands(List<CommandTemplate> commands, Player player, Tag tag) {
+        return commandTemplates.dispatch(commands, "執行權限指令: ", player.getName(), tag.getPermission(), null);
     }
 }
\ No newline at end of file
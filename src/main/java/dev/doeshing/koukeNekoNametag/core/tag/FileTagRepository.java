@@ -1,12 +1,17 @@
 package dev.doeshing.koukeNekoNametag.core.tag;
 
 import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.DataFiles;
+import dev.doeshing.koukeNekoNametag.core.DataFolderWatcher;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -16,14 +21,21 @@ import java.util.*;
  * - SRP (單一責任原則): 專門負責檔案資料存取
  * - DIP (依賴反轉原則): 實作TagRepository介面
  * - OCP (開放封閉原則): 透過介面擴展，對修改封閉
+ *
+ * 標籤只在載入、重載或修改時解析一次，結果以不可變的 {@link TagCatalog} 快照發布。
+ * 修改會立即反映在記憶體中，檔案則由 {@link WriteBehindFlusher} 在背景合併寫回，
+ * 每次寫回都先寫入暫存檔再以改名取代原檔，避免寫到一半的檔案。
  */
 public class FileTagRepository implements TagRepository {
     
     private final KoukeNekoNametag plugin;
-    private final Map<String, Tag> tags;
+    private volatile TagCatalog catalog = TagCatalog.EMPTY; // 目前發布的快照
     private File tagsFile;
     private FileConfiguration tagsConfig;
     private String permissionPrefix;
+    private final PersistenceMetrics metrics = new PersistenceMetrics();
+    private final WriteBehindFlusher flusher;
+    private final long flushTimeoutMillis;
     
     /**
      * 建立檔案標籤儲存庫
@@ -31,10 +43,16 @@ public class FileTagRepository implements TagRepository {
      */
     public FileTagRepository(KoukeNekoNametag plugin) {
         this.plugin = plugin;
-        this.tags = new HashMap<>();
         this.permissionPrefix = plugin.getConfig().getString("permission.tag_prefix", "koukeneko.tags.");
+        this.flushTimeoutMillis = plugin.getConfig().getLong("storage.shutdown_flush_timeout_ms", 5000L);
         initializeFile();
         loadAllTags();
+        this.flusher = new WriteBehindFlusher(
+                "KoukeNeko-TagWriter",
+                plugin.getLogger(),
+                plugin.getConfig().getLong("storage.flush_interval_ms", 1000L),
+                metrics,
+                this::writeTagsFile);
     }
     
     /**
@@ -42,80 +60,135 @@ public class FileTagRepository implements TagRepository {
      * 遵循SRP: 專門負責檔案初始化
      */
     private void initializeFile() {
+        resolveFile();
+        tagsConfig = YamlConfiguration.loadConfiguration(tagsFile);
+    }
+    
+    /**
+     * 依設定決定標籤檔案位置，檔案不存在時從外掛內建資源建立
+     */
+    private void resolveFile() {
         String tagsFileName = plugin.getConfig().getString("files.tags_file", "tags.yml");
         tagsFile = new File(plugin.getDataFolder(), tagsFileName);
         if (!tagsFile.exists()) {
             plugin.saveResource(tagsFileName, false);
         }
-        tagsConfig = YamlConfiguration.loadConfiguration(tagsFile);
     }
     
     @Override
-    public Collection<Tag> loadAllTags() {
-        tags.clear();
+    public synchronized Collection<Tag> loadAllTags() {
         ConfigurationSection tagsSection = tagsConfig.getConfigurationSection("tags");
         if (tagsSection == null) {
             plugin.getLogger().warning("No tags section found in tags.yml!");
-            return new ArrayList<>();
+            catalog = catalog.replaceWith(Collections.emptyList());
+            return catalog.getTags();
         }
         
         // SRP: 專門處理標籤載入邏輯
+        boolean debug = plugin.getConfig().getBoolean("debug.enabled", false);
+        List<Tag> loaded = new ArrayList<>();
         for (String tagId : tagsSection.getKeys(false)) {
             String display = tagsSection.getString(tagId + ".display", "&7[" + tagId + "]&f");
-            Tag tag = new Tag(tagId, display, permissionPrefix);
-            tags.put(tagId, tag);
+            loaded.add(new Tag(tagId, display, permissionPrefix));
             
             // 除錯日誌
-            if (plugin.getConfig().getBoolean("debug.enabled", false)) {
+            if (debug) {
                 plugin.getLogger().info("Loaded tag: " + tagId + " with display: " + display);
             }
         }
         
-        return new ArrayList<>(tags.values());
+        // 以單一參考寫入發布新快照
+        catalog = catalog.replaceWith(loaded);
+        return catalog.getTags();
+    }
+    
+    @Override
+    public TagCatalog getCatalog() {
+        return catalog;
     }
     
     @Override
     public Optional<Tag> findById(String id) {
-        return Optional.ofNullable(tags.get(id));
+        return Optional.ofNullable(catalog.get(id));
     }
     
     @Override
     public boolean save(Tag tag) {
-        try {
-            // SRP: 專門處理標籤儲存
-            tags.put(tag.getId(), tag);
+        // SRP: 專門處理標籤儲存，檔案寫入交由背景執行緒合併處理
+        synchronized (this) {
             tagsConfig.set("tags." + tag.getId() + ".display", tag.getDisplay());
-            tagsConfig.save(tagsFile);
-            return true;
-        } catch (IOException e) {
-            plugin.getLogger().severe("Failed to save tag: " + e.getMessage());
-            return false;
+            catalog = catalog.withTag(tag);
         }
+        flusher.markDirty();
+        return true;
     }
     
     @Override
     public boolean delete(String id) {
-        if (!tags.containsKey(id)) {
-            return false;
+        // SRP: 專門處理標籤刪除，檔案寫入交由背景執行緒合併處理
+        synchronized (this) {
+            if (!catalog.contains(id)) {
+                return false;
+            }
+            tagsConfig.set("tags." + id, null);
+            catalog = catalog.withoutTag(id);
         }
+        flusher.markDirty();
+        return true;
+    }
+    
+    @Override
+    public boolean reload() {
+        // 先寫回尚未寫入的修改，避免被檔案內容覆蓋
+        flusher.flushNow(flushTimeoutMillis);
         
-        try {
-            // SRP: 專門處理標籤刪除
-            tags.remove(id);
-            tagsConfig.set("tags." + id, null);
-            tagsConfig.save(tagsFile);
+        // SRP: 專門處理重新載入
+        synchronized (this) {
+            resolveFile();
+            // 先完整解析新檔案，格式錯誤時保留目前的標籤目錄
+            YamlConfiguration reloaded = new YamlConfiguration();
+            try {
+                reloaded.load(tagsFile);
+            } catch (IOException | InvalidConfigurationException e) {
+                plugin.getLogger().warning("無法重新載入 " + tagsFile.getName() + "，保留目前的標籤: " + e.getMessage());
+                return false;
+            }
+            this.permissionPrefix = plugin.getConfig().getString("permission.tag_prefix", "koukeneko.tags.");
+            this.tagsConfig = reloaded;
+            loadAllTags();
             return true;
-        } catch (IOException e) {
-            plugin.getLogger().severe("Failed to delete tag: " + e.getMessage());
-            return false;
         }
     }
     
     @Override
-    public void reload() {
-        // SRP: 專門處理重新載入
-        this.permissionPrefix = plugin.getConfig().getString("permission.tag_prefix", "koukeneko.tags.");
-        initializeFile();
-        loadAllTags();
+    public PersistenceMetrics getPersistenceMetrics() {
+        return metrics;
+    }
+    
+    @Override
+    public void close() {
+        flusher.shutdown(flushTimeoutMillis);
+    }
+    
+    /**
+     * 將目前的標籤文件寫入檔案
+     * 只在背景寫入執行緒上執行: 先寫入暫存檔，再以原子改名取代原檔
+     */
+    private void writeTagsFile() throws IOException {
+        String content;
+        Path target;
+        synchronized (this) {
+            content = tagsConfig.saveToString();
+            target = tagsFile.toPath();
+        }
+        
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        DataFolderWatcher watcher = plugin.getFileWatcher();
+        if (watcher != null) {
+            // 避免熱重載重新解析自己寫入的檔案
+            watcher.recordOwnWrite(target, bytes);
+        }
+        
+        DataFiles.writeAtomically(target, bytes);
     }
 }
\ No newline at end of file
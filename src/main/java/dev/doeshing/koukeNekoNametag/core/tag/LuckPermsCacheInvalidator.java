@@ -0,0 +1,34 @@
+package dev.doeshing.koukeNekoNametag.core.tag;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.AdminPermissionCache;
+import net.luckperms.api.LuckPermsProvider;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
+
+/**
+ * LuckPerms 權限變更監聽器
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責把 LuckPerms 的權限重新計算轉換成快取失效與管理員旗標更新
+ *
+ * 注意: 只有在伺服器安裝 LuckPerms 時才可以載入此類別。
+ */
+public final class LuckPermsCacheInvalidator {
+
+    private LuckPermsCacheInvalidator() {
+    }
+
+    /**
+     * 訂閱 LuckPerms 的使用者資料重新計算事件
+     *
+     * @param plugin 外掛實例
+     * @param cache 要清除的玩家可用標籤快取
+     * @param adminCache 要重新計算的管理員權限快取
+     */
+    public static void register(KoukeNekoNametag plugin, AvailableTagCache cache, AdminPermissionCache adminCache) {
+        LuckPermsProvider.get().getEventBus().subscribe(plugin, UserDataRecalculateEvent.class, event -> {
+            cache.invalidate(event.getUser().getUniqueId());
+            adminCache.refreshLater(event.getUser().getUniqueId());
+        });
+    }
+}
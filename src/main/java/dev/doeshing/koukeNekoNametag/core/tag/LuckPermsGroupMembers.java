@@ -0,0 +1,38 @@
+package dev.doeshing.koukeNekoNametag.core.tag;
+
+import net.luckperms.api.LuckPermsProvider;
+import net.luckperms.api.node.matcher.NodeMatcher;
+import net.luckperms.api.node.types.InheritanceNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * LuckPerms 群組成員查詢
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責找出直接繼承指定群組的所有使用者
+ *
+ * 查詢由 LuckPerms 在自己的執行緒上搜尋儲存資料，包含離線玩家。
+ * 注意: 只有在伺服器安裝 LuckPerms 時才可以載入此類別。
+ */
+public final class LuckPermsGroupMembers {
+
+    private LuckPermsGroupMembers() {
+    }
+
+    /**
+     * 非同步查詢群組成員
+     *
+     * @param group 群組名稱
+     * @return 完成時回傳成員UUID
+     */
+    public static CompletableFuture<List<UUID>> find(String group) {
+        InheritanceNode node = InheritanceNode.builder(group).build();
+        return LuckPermsProvider.get().getUserManager()
+                .searchAll(NodeMatcher.key(node))
+                .thenApply(result -> new ArrayList<>(result.keySet()));
+    }
+}
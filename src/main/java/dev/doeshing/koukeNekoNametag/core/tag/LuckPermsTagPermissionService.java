@@ -0,0 +1,199 @@
+package dev.doeshing.koukeNekoNametag.core.tag;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import net.luckperms.api.LuckPerms;
+import net.luckperms.api.LuckPermsProvider;
+import net.luckperms.api.model.data.DataMutateResult;
+import net.luckperms.api.model.group.GroupManager;
+import net.luckperms.api.model.user.User;
+import net.luckperms.api.model.user.UserManager;
+import net.luckperms.api.node.Node;
+import net.luckperms.api.node.matcher.NodeMatcher;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * 基於 LuckPerms API 的標籤權限服務實作
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 專門負責透過 LuckPerms 修改權限節點
+ * - DIP (依賴反轉原則): 實作TagPermissionService介面
+ * - LSP (里氏替換原則): 可直接取代 CommandTagPermissionService
+ *
+ * 權限節點直接在記憶體中的 User 上修改並立即生效，
+ * 儲存則透過 LuckPerms 回傳的 CompletableFuture 非同步完成，不佔用主執行緒。
+ * 注意: 只有在伺服器安裝 LuckPerms 時才可以載入此類別。
+ */
+public class LuckPermsTagPermissionService implements TagPermissionService {
+
+    private final KoukeNekoNametag plugin;
+    private final LuckPerms luckPerms;
+
+    public LuckPermsTagPermissionService(KoukeNekoNametag plugin) {
+        this.plugin = plugin;
+        this.luckPerms = LuckPermsProvider.get();
+    }
+
+    @Override
+    public boolean givePermission(Player player, Tag tag) {
+        if (tag == null) {
+            return false;
+        }
+
+        // SRP: 專門處理權限給予邏輯
+        return applyNodeChange(player, tag, true);
+    }
+
+    @Override
+    public boolean removePermission(Player player, Tag tag) {
+        if (tag == null) {
+            return false;
+        }
+
+        // SRP: 專門處理權限移除邏輯
+        return applyNodeChange(player, tag, false);
+    }
+
+    @Override
+    public boolean hasPermission(Player player, Tag tag) {
+        return player.hasPermission(tag.getPermission());
+    }
+
+    /**
+     * 批次修改權限節點
+     * 已載入的 User 直接在記憶體中修改後排入 LuckPerms 的非同步儲存；
+     * 未載入的玩家交由 modifyUser 在 LuckPerms 的執行緒上載入、修改並儲存。
+     * 整批只產生一次日誌，不會為每位玩家執行指令。
+     */
+    @Override
+    public CompletableFuture<Integer> applyPermissionBatch(Collection<UUID> playerIds, Tag tag, boolean grant) {
+        UserManager userManager = luckPerms.getUserManager();
+        Node node = Node.builder(tag.getPermission()).build();
+        AtomicInteger succeeded = new AtomicInteger();
+        List<CompletableFuture<Void>> saves = new ArrayList<>(playerIds.size());
+
+        for (UUID playerId : playerIds) {
+            User user = userManager.getUser(playerId);
+            CompletableFuture<Void> save;
+            if (user != null) {
+                mutate(user, node, grant);
+                save = userManager.saveUser(user);
+            } else {
+                save = userManager.modifyUser(playerId, loaded -> mutate(loaded, node, grant));
+            }
+            saves.add(save.thenRun(succeeded::incrementAndGet)
+                    .exceptionally(throwable -> logSaveFailure(playerId.toString(), throwable)));
+        }
+
+        if (plugin.getConfig().getBoolean("debug.log_permissions", false)) {
+            plugin.getLogger().info((grant ? "已透過 LuckPerms 批次給予權限: " : "已透過 LuckPerms 批次移除權限: ")
+                    + playerIds.size() + " 位玩家 -> " + tag.getPermission());
+        }
+
+        return CompletableFuture.allOf(saves.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> succeeded.get());
+    }
+
+    /**
+     * 透過 LuckPerms 搜尋所有擁有此節點的使用者與群組並移除
+     * 搜尋與修改都在 LuckPerms 的執行緒上進行，包含離線使用者；
+     * 帶有情境或期限的同名節點也會一併移除
+     */
+    @Override
+    public CompletableFuture<Integer> revokeFromAll(Tag tag) {
+        UserManager userManager = luckPerms.getUserManager();
+        GroupManager groupManager = luckPerms.getGroupManager();
+        NodeMatcher<Node> matcher = NodeMatcher.key(tag.getPermission());
+
+        CompletableFuture<Integer> users = userManager.searchAll(matcher).thenCompose(result -> {
+            List<CompletableFuture<Void>> saves = new ArrayList<>(result.size());
+            for (UUID playerId : result.keySet()) {
+                saves.add(userManager.modifyUser(playerId, user -> user.data().clear(matcher))
+                        .exceptionally(throwable -> logSaveFailure(playerId.toString(), throwable)));
+            }
+            return CompletableFuture.allOf(saves.toArray(new CompletableFuture[0]))
+                    .thenApply(ignored -> result.size());
+        });
+
+        CompletableFuture<Void> groups = groupManager.searchAll(matcher).thenCompose(result -> {
+            List<CompletableFuture<Void>> saves = new ArrayList<>(result.size());
+            for (String groupName : result.keySet()) {
+                saves.add(groupManager.modifyGroup(groupName, group -> group.data().clear(matcher))
+                        .exceptionally(throwable -> logSaveFailure("group." + groupName, throwable)));
+            }
+            return CompletableFuture.allOf(saves.toArray(new CompletableFuture[0]));
+        });
+
+        return users.thenCombine(groups, (count, ignored) -> count);
+    }
+
+    /**
+     * modifyUser 會自行載入離線玩家的資料
+     */
+    @Override
+    public boolean supportsOfflineTargets() {
+        return true;
+    }
+
+    /**
+     * 修改玩家的權限節點
+     * 線上玩家的 User 已由 LuckPerms 載入，直接修改後非同步儲存；
+     * 否則交由 modifyUser 非同步載入、修改並儲存
+     */
+    private boolean applyNodeChange(Player player, Tag tag, boolean grant) {
+        UserManager userManager = luckPerms.getUserManager();
+        UUID playerId = player.getUniqueId();
+        Node node = Node.builder(tag.getPermission()).build();
+
+        User user = userManager.getUser(playerId);
+        if (user == null) {
+            userManager.modifyUser(playerId, loaded -> mutate(loaded, node, grant))
+                    .exceptionally(throwable -> logSaveFailure(player.getName(), throwable));
+            logPermissionChange(player, tag, grant);
+            return true;
+        }
+
+        DataMutateResult result = mutate(user, node, grant);
+        if (result == DataMutateResult.FAIL) {
+            return false;
+        }
+
+        userManager.saveUser(user)
+                .exceptionally(throwable -> logSaveFailure(player.getName(), throwable));
+        logPermissionChange(player, tag, grant);
+        return true;
+    }
+
+    /**
+     * 在 User 上新增或移除節點
+     * 已擁有或本來就沒有該節點時不視為失敗
+     */
+    private DataMutateResult mutate(User user, Node node, boolean grant) {
+        return grant ? user.data().add(node) : user.data().remove(node);
+    }
+
+    /**
+     * 記錄權限變更
+     */
+    private void logPermissionChange(Player player, Tag tag, boolean grant) {
+        if (plugin.getConfig().getBoolean("debug.log_permissions", false)) {
+            plugin.getLogger().info((grant ? "已透過 LuckPerms 給予權限: " : "已透過 LuckPerms 移除權限: ")
+                    + player.getName() + " -> " + tag.getPermission());
+        }
+    }
+
+    /**
+     * 記錄非同步儲存失敗
+     */
+    private Void logSaveFailure(String playerName, Throwable throwable) {
+        plugin.getLogger().log(Level.SEVERE, "儲存 " + playerName + " 的 LuckPerms 資料失敗: " + throwable.getMessage(), throwable);
+        return null;
+    }
+}
@@ -0,0 +1,253 @@
+package dev.doeshing.koukeNekoNametag.core.tag;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.DataFiles;
+import dev.doeshing.koukeNekoNametag.core.lang.Placeholders;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * 離線玩家的待處理權限佇列
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責保存無法立即套用的給予/移除操作，並在玩家加入時套用
+ *
+ * 每位玩家的操作以標籤ID合併，同一標籤只保留最後一次操作 (先給予再移除等同於移除)。
+ * 佇列以精簡的二進位格式保存，由 {@link WriteBehindFlusher} 在背景合併寫回，
+ * 寫入方式與標籤檔案相同 (暫存檔 + 原子改名)。
+ * 玩家加入時，其操作會在下一個 tick 一次取出並以批次 API 套用；
+ * 權限服務的儲存在非同步執行緒完成，套用失敗的操作會放回佇列。
+ */
+public class PendingGrantQueue implements Listener {
+
+    private static final int FILE_MAGIC = 0x4B4E5047; // "KNPG"
+    private static final int FILE_VERSION = 1;
+
+    private final KoukeNekoNametag plugin;
+    private final TagManager tagManager;
+    private final Map<UUID, LinkedHashMap<String, Boolean>> pending = new HashMap<>(); // 玩家 -> (標籤ID -> 是否給予)
+    private final File queueFile;
+    private final PersistenceMetrics metrics = new PersistenceMetrics();
+    private final WriteBehindFlusher flusher;
+    private final long flushTimeoutMillis;
+
+    public PendingGrantQueue(KoukeNekoNametag plugin, TagManager tagManager) {
+        this.plugin = plugin;
+        this.tagManager = tagManager;
+        this.queueFile = new File(plugin.getDataFolder(),
+                plugin.getConfig().getString("files.pending_grants_file", "pending_grants.dat"));
+        this.flushTimeoutMillis = plugin.getConfig().getLong("storage.shutdown_flush_timeout_ms", 5000L);
+        load();
+        this.flusher = new WriteBehindFlusher(
+                "KoukeNeko-PendingGrantWriter",
+                plugin.getLogger(),
+                plugin.getConfig().getLong("storage.flush_interval_ms", 1000L),
+                metrics,
+                this::writeQueueFile);
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * 加入一筆待處理操作
+     * 同一玩家同一標籤的舊操作會被取代
+     *
+     * @param playerId 玩家UUID
+     * @param tagId 標籤ID
+     * @param grant true 為給予，false 為移除
+     */
+    public void enqueue(UUID playerId, String tagId, boolean grant) {
+        synchronized (this) {
+            LinkedHashMap<String, Boolean> operations = pending.computeIfAbsent(playerId, id -> new LinkedHashMap<>());
+            // 先移除再放入，讓最後一次操作排在最後
+            operations.remove(tagId);
+            operations.put(tagId, grant);
+        }
+        flusher.markDirty();
+    }
+
+    /**
+     * 捨棄玩家某個標籤的待處理操作
+     * 權限已直接套用時呼叫，避免玩家加入時被舊操作覆蓋
+     */
+    public void discard(UUID playerId, String tagId) {
+        synchronized (this) {
+            LinkedHashMap<String, Boolean> operations = pending.get(playerId);
+            if (operations == null || operations.remove(tagId) == null) {
+                return;
+            }
+            if (operations.isEmpty()) {
+                pending.remove(playerId);
+            }
+        }
+        flusher.markDirty();
+    }
+
+    /**
+     * 捨棄所有玩家對指定標籤的待處理操作
+     * 標籤被刪除後呼叫，避免佇列保留永遠不會套用的操作
+     *
+     * @param tagId 標籤ID
+     * @return 被捨棄操作的玩家數量
+     */
+    public int discardTag(String tagId) {
+        int discarded = 0;
+        synchronized (this) {
+            Iterator<LinkedHashMap<String, Boolean>> iterator = pending.values().iterator();
+            while (iterator.hasNext()) {
+                LinkedHashMap<String, Boolean> operations = iterator.next();
+                if (operations.remove(tagId) != null) {
+                    discarded++;
+                    if (operations.isEmpty()) {
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+        if (discarded > 0) {
+            flusher.markDirty();
+        }
+        return discarded;
+    }
+
+    /**
+     * 獲取待處理的玩家數量
+     */
+    public synchronized int getPlayerCount() {
+        return pending.size();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        UUID playerId = event.getPlayer().getUniqueId();
+        LinkedHashMap<String, Boolean> operations;
+        synchronized (this) {
+            operations = pending.remove(playerId);
+        }
+        if (operations == null) {
+            return;
+        }
+        flusher.markDirty();
+
+        // 等權限外掛完成玩家資料載入後再套用
+        Bukkit.getScheduler().runTask(plugin, () -> apply(playerId, operations));
+    }
+
+    /**
+     * 套用玩家的所有待處理操作
+     * 每個標籤一次批次呼叫，已刪除的標籤直接略過
+     */
+    private void apply(UUID playerId, Map<String, Boolean> operations) {
+        List<UUID> target = List.of(playerId);
+        for (Map.Entry<String, Boolean> operation : operations.entrySet()) {
+            String tagId = operation.getKey();
+            boolean grant = operation.getValue();
+            Tag tag = tagManager.getTag(tagId);
+            if (tag == null) {
+                continue;
+            }
+
+            tagManager.applyTagPermissionBatch(target, tag, grant).whenComplete((count, throwable) -> {
+                if (throwable != null || count == 0) {
+                    plugin.getLogger().warning("套用待處理的標籤權限失敗，將於下次加入時重試 (" + playerId + " -> "
+                            + tag.getPermission() + ")" + (throwable != null ? ": " + throwable.getMessage() : ""));
+                    requeue(playerId, tagId, grant);
+                } else if (grant && plugin.isEnabled()) {
+                    Bukkit.getScheduler().runTask(plugin, () -> notifyGranted(playerId, tag));
+                }
+            });
+        }
+    }
+
+    /**
+     * 放回失敗的操作，不覆蓋期間內新加入的同標籤操作
+     */
+    private void requeue(UUID playerId, String tagId, boolean grant) {
+        synchronized (this) {
+            pending.computeIfAbsent(playerId, id -> new LinkedHashMap<>()).putIfAbsent(tagId, grant);
+        }
+        flusher.markDirty();
+    }
+
+    private void notifyGranted(UUID playerId, Tag tag) {
+        Player player = Bukkit.getPlayer(playerId);
+        if (player != null) {
+            plugin.getMessageManager().sendConfigMessage(player, "tag.you_got_tag",
+                    Placeholders.of("display", tag.getDisplay()));
+        }
+    }
+
+    /**
+     * 停用外掛時在時間上限內寫回佇列
+     */
+    public void close() {
+        flusher.shutdown(flushTimeoutMillis);
+    }
+
+    /**
+     * 讀取佇列檔案
+     * 檔案不存在時為空佇列；格式錯誤時記錄警告並以空佇列開始
+     */
+    private void load() {
+        if (!queueFile.exists()) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(queueFile)))) {
+            if (in.readInt() != FILE_MAGIC || in.readUnsignedByte() != FILE_VERSION) {
+                plugin.getLogger().warning("無法辨識的待處理權限檔案格式: " + queueFile.getName());
+                return;
+            }
+            int players = in.readInt();
+            for (int i = 0; i < players; i++) {
+                UUID playerId = new UUID(in.readLong(), in.readLong());
+                int count = in.readUnsignedShort();
+                LinkedHashMap<String, Boolean> operations = new LinkedHashMap<>();
+                for (int j = 0; j < count; j++) {
+                    boolean grant = in.readBoolean();
+                    operations.put(in.readUTF(), grant);
+                }
+                if (!operations.isEmpty()) {
+                    pending.put(playerId, operations);
+                }
+            }
+            plugin.getLogger().info("已載入 " + pending.size() + " 位玩家的待處理標籤權限");
+        } catch (IOException e) {
+            plugin.getLogger().warning("讀取待處理權限檔案失敗: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 將目前的佇列寫入檔案
+     * 只在背景寫入執行緒上執行: 先在鎖內編碼，再寫入暫存檔並以原子改名取代原檔
+     */
+    private void writeQueueFile() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        synchronized (this) {
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeInt(FILE_MAGIC);
+            out.writeByte(FILE_VERSION);
+            out.writeInt(pending.size());
+            for (Map.Entry<UUID, LinkedHashMap<String, Boolean>> entry : pending.entrySet()) {
+                out.writeLong(entry.getKey().getMostSignificantBits());
+                out.writeLong(entry.getKey().getLeastSignificantBits());
+                out.writeShort(entry.getValue().size());
+                for (Map.Entry<String, Boolean> operation : entry.getValue().entrySet()) {
+                    out.writeBoolean(operation.getValue());
+                    out.writeUTF(operation.getKey());
+                }
+            }
+            out.flush();
+        }
+
+        Path target = queueFile.toPath();
+        DataFiles.writeAtomically(target, buffer.toByteArray());
+    }
+}
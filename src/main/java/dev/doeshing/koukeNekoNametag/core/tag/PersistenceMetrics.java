@@ -0,0 +1,99 @@
+package dev.doeshing.koukeNekoNametag.core.tag;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 標籤資料寫回的統計資訊
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責累計寫回延遲與批次大小
+ *
+ * 所有計數器皆為原子操作，可由背景寫入執行緒更新、由主執行緒讀取。
+ */
+public final class PersistenceMetrics {
+
+    private final AtomicLong mutations = new AtomicLong();        // 累計修改次數
+    private final AtomicLong flushes = new AtomicLong();          // 成功寫回次數
+    private final AtomicLong failedFlushes = new AtomicLong();    // 失敗寫回次數
+    private final AtomicLong batchedMutations = new AtomicLong(); // 已寫回的修改總數
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+
+    /**
+     * 記錄一次記憶體內的修改
+     */
+    void recordMutation() {
+        mutations.incrementAndGet();
+    }
+
+    /**
+     * 記錄一次成功的寫回
+     * @param batchSize 此次合併的修改數量
+     * @param elapsedNanos 寫回耗時 (奈秒)
+     */
+    void recordFlush(int batchSize, long elapsedNanos) {
+        flushes.incrementAndGet();
+        batchedMutations.addAndGet(batchSize);
+        totalFlushNanos.addAndGet(elapsedNanos);
+        lastFlushNanos.set(elapsedNanos);
+        maxFlushNanos.accumulateAndGet(elapsedNanos, Math::max);
+        lastBatchSize.set(batchSize);
+        maxBatchSize.accumulateAndGet(batchSize, Math::max);
+    }
+
+    /**
+     * 記錄一次失敗的寫回
+     */
+    void recordFailure() {
+        failedFlushes.incrementAndGet();
+    }
+
+    public long getMutationCount() {
+        return mutations.get();
+    }
+
+    public long getFlushCount() {
+        return flushes.get();
+    }
+
+    public long getFailedFlushCount() {
+        return failedFlushes.get();
+    }
+
+    public long getLastBatchSize() {
+        return lastBatchSize.get();
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    /**
+     * 獲取平均批次大小
+     * @return 每次寫回平均合併的修改數量
+     */
+    public double getAverageBatchSize() {
+        long count = flushes.get();
+        return count == 0 ? 0.0 : (double) batchedMutations.get() / count;
+    }
+
+    public double getLastFlushMillis() {
+        return lastFlushNanos.get() / 1_000_000.0;
+    }
+
+    public double getMaxFlushMillis() {
+        return maxFlushNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * 獲取平均寫回延遲
+     * @return 平均耗時 (毫秒)
+     */
+    public double getAverageFlushMillis() {
+        long count = flushes.get();
+        return count == 0 ? 0.0 : totalFlushNanos.get() / 1_000_000.0 / count;
+    }
+}
@@ -0,0 +1,182 @@
+package dev.doeshing.koukeNekoNametag.core.tag;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.Team;
+
+import java.util.*;
+
+/**
+ * 基於計分板隊伍的標籤顯示服務實作
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 專門負責以隊伍前綴顯示標籤
+ * - DIP (依賴反轉原則): 實作TagDisplayService介面
+ * - LSP (里氏替換原則): 可直接取代 CommandTagDisplayService
+ *
+ * 每一種不同的標籤顯示格式共用一個隊伍 (而非每位玩家一個)，
+ * 切換標籤只需要把玩家移到另一個隊伍；隊伍池只在目錄版本變更時重建。
+ * 注意: 使用主計分板，若其他插件為玩家設定了獨立計分板，前綴將不會顯示。
+ */
+public class ScoreboardTagDisplayService implements TagDisplayService {
+
+    private static final String TEAM_PREFIX = "kntag_";
+
+    private final KoukeNekoNametag plugin;
+    private final TagRepository tagRepository;
+    private final Map<String, Team> teamsByDisplay = new HashMap<>();  // 顯示格式 -> 共用隊伍
+    private Map<String, String> displaysByTagId = new HashMap<>();     // 目前隊伍池對應的標籤顯示格式
+    private final Map<String, String> tagIdsByEntry = new HashMap<>();  // 隊伍成員 (玩家名稱) -> 標籤ID
+    private long poolVersion = -1L;
+    private int nextTeamId;
+
+    public ScoreboardTagDisplayService(KoukeNekoNametag plugin, TagRepository tagRepository) {
+        this.plugin = plugin;
+        this.tagRepository = tagRepository;
+        removeStaleTeams();
+    }
+
+    @Override
+    public boolean setActiveTag(Player player, Tag tag) {
+        if (tag == null) {
+            return false;
+        }
+
+        ensurePool(tagRepository.getCatalog());
+        Team team = teamsByDisplay.get(tag.getDisplay());
+        if (team == null) {
+            return false;
+        }
+
+        // 同一計分板內加入新隊伍會自動離開原本的隊伍，只需一次移動
+        team.addEntry(player.getName());
+        tagIdsByEntry.put(player.getName(), tag.getId());
+        return true;
+    }
+
+    @Override
+    public boolean removeActiveTag(Player player) {
+        tagIdsByEntry.remove(player.getName());
+        Team team = getScoreboard().getEntryTeam(player.getName());
+        if (team != null && isPooledTeam(team)) {
+            team.removeEntry(player.getName());
+        }
+        return true;
+    }
+
+    @Override
+    public void onCatalogChanged(TagCatalog catalog) {
+        ensurePool(catalog);
+    }
+
+    @Override
+    public void shutdown() {
+        for (Team team : teamsByDisplay.values()) {
+            unregisterQuietly(team);
+        }
+        teamsByDisplay.clear();
+        displaysByTagId.clear();
+        tagIdsByEntry.clear();
+        poolVersion = -1L;
+    }
+
+    /**
+     * 確保隊伍池與目錄版本一致
+     */
+    private void ensurePool(TagCatalog catalog) {
+        if (catalog.getVersion() != poolVersion) {
+            rebuildPool(catalog);
+        }
+    }
+
+    /**
+     * 依目錄重建隊伍池
+     * 顯示格式被修改的標籤，其成員會移到新隊伍 (舊隊伍可能仍被其他相同格式的標籤使用)；
+     * 已刪除標籤的成員離開隊伍；最後移除不再使用的隊伍
+     */
+    private void rebuildPool(TagCatalog catalog) {
+        Map<String, String> nextDisplays = new HashMap<>();
+        for (Tag tag : catalog.getTags()) {
+            nextDisplays.put(tag.getId(), tag.getDisplay());
+            teamsByDisplay.computeIfAbsent(tag.getDisplay(), this::createTeam);
+        }
+
+        Iterator<Map.Entry<String, String>> members = tagIdsByEntry.entrySet().iterator();
+        while (members.hasNext()) {
+            Map.Entry<String, String> member = members.next();
+            String oldDisplay = displaysByTagId.get(member.getValue());
+            String newDisplay = nextDisplays.get(member.getValue());
+            if (Objects.equals(oldDisplay, newDisplay)) {
+                continue;
+            }
+
+            if (newDisplay != null) {
+                // 加入新隊伍會自動離開舊隊伍
+                teamsByDisplay.get(newDisplay).addEntry(member.getKey());
+            } else {
+                Team team = oldDisplay != null ? teamsByDisplay.get(oldDisplay) : null;
+                if (team != null) {
+                    team.removeEntry(member.getKey());
+                }
+                members.remove();
+            }
+        }
+
+        Set<String> liveDisplays = new HashSet<>(nextDisplays.values());
+        Iterator<Map.Entry<String, Team>> iterator = teamsByDisplay.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Team> entry = iterator.next();
+            if (!liveDisplays.contains(entry.getKey())) {
+                unregisterQuietly(entry.getValue());
+                iterator.remove();
+            }
+        }
+
+        displaysByTagId = nextDisplays;
+        poolVersion = catalog.getVersion();
+    }
+
+    /**
+     * 建立顯示格式對應的共用隊伍
+     */
+    private Team createTeam(String display) {
+        Scoreboard scoreboard = getScoreboard();
+        String name;
+        do {
+            name = TEAM_PREFIX + Integer.toString(nextTeamId++, 36);
+        } while (scoreboard.getTeam(name) != null);
+
+        Team team = scoreboard.registerNewTeam(name);
+        team.prefix(plugin.getMessageManager().format(display));
+        return team;
+    }
+
+    /**
+     * 移除上次執行遺留在主計分板中的隊伍
+     */
+    private void removeStaleTeams() {
+        for (Team team : new ArrayList<>(getScoreboard().getTeams())) {
+            if (isPooledTeam(team)) {
+                unregisterQuietly(team);
+            }
+        }
+    }
+
+    private boolean isPooledTeam(Team team) {
+        return team.getName().startsWith(TEAM_PREFIX);
+    }
+
+    private void unregisterQuietly(Team team) {
+        try {
+            team.unregister();
+        } catch (IllegalStateException ignored) {
+            // 隊伍已被其他來源移除
+        }
+    }
+
+    private Scoreboard getScoreboard() {
+        return Bukkit.getScoreboardManager().getMainScoreboard();
+    }
+}
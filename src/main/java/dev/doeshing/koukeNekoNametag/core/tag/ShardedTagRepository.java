@@ -0,0 +1,397 @@
+package dev.doeshing.koukeNekoNametag.core.tag;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.DataFiles;
+import dev.doeshing.koukeNekoNametag.core.DataFolderWatcher;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * 基於目錄分片的標籤資料儲存實作
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 專門負責多個標籤檔案 (分片) 的存取
+ * - DIP (依賴反轉原則): 實作TagRepository介面
+ * - LSP (里氏替換原則): 可直接取代 FileTagRepository
+ *
+ * 標籤分散在 tags/ 目錄下的多個 YAML 檔案 (例如依分類或季節)，格式與 tags.yml 相同。
+ * 每個分片記錄檔案大小、修改時間與內容雜湊: 重新載入時大小與時間都沒變的分片不讀取，
+ * 內容雜湊沒變的分片不解析，只有真正變更的分片會重新解析，其餘分片沿用已解析的標籤。
+ * 目錄快照只套用變更分片中標籤的差異，未受影響的標籤不會重新建立。
+ * 修改只標記所屬的分片，背景寫回時只重寫這些分片 (暫存檔 + 原子改名)。
+ */
+public class ShardedTagRepository implements TagRepository {
+
+    private static final String SHARD_SUFFIX = ".yml";
+
+    private final KoukeNekoNametag plugin;
+    private final Path directory;
+    private final String defaultShard;
+    private final Map<String, Shard> shards = new TreeMap<>(); // 檔名 -> 分片 (依檔名排序)，受 this 保護
+    private final Map<String, Shard> owners = new HashMap<>(); // 標籤ID -> 所屬分片，受 this 保護
+    private volatile TagCatalog catalog = TagCatalog.EMPTY;    // 目前發布的快照
+    private String permissionPrefix;
+    private final PersistenceMetrics metrics = new PersistenceMetrics();
+    private final WriteBehindFlusher flusher;
+    private final long flushTimeoutMillis;
+
+    /**
+     * 單一分片檔案
+     */
+    private static final class Shard {
+        private final String name;
+        private final Path file;
+        private YamlConfiguration config = new YamlConfiguration();
+        private Map<String, Tag> tags = new LinkedHashMap<>(); // 標籤ID -> 標籤，依檔案順序排列
+        private long size = -1L;
+        private long modified = -1L;
+        private byte[] hash;
+        private boolean dirty;
+
+        private Shard(String name, Path file) {
+            this.name = name;
+            this.file = file;
+        }
+    }
+
+    /**
+     * 建立分片標籤儲存庫
+     * @param plugin 外掛實例
+     */
+    public ShardedTagRepository(KoukeNekoNametag plugin) {
+        this.plugin = plugin;
+        this.permissionPrefix = plugin.getConfig().getString("permission.tag_prefix", "koukeneko.tags.");
+        this.flushTimeoutMillis = plugin.getConfig().getLong("storage.shutdown_flush_timeout_ms", 5000L);
+        this.directory = plugin.getDataFolder().toPath()
+                .resolve(plugin.getConfig().getString("files.tags_directory", "tags"));
+        this.defaultShard = plugin.getConfig().getString("storage.default_shard", "default.yml");
+        initializeDirectory();
+        loadAllTags();
+        this.flusher = new WriteBehindFlusher(
+                "KoukeNeko-TagWriter",
+                plugin.getLogger(),
+                plugin.getConfig().getLong("storage.flush_interval_ms", 1000L),
+                metrics,
+                this::writeDirtyShards);
+    }
+
+    /**
+     * 初始化分片目錄
+     * 第一次使用時把現有的標籤檔案複製為預設分片
+     */
+    private void initializeDirectory() {
+        if (Files.isDirectory(directory)) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            String tagsFileName = plugin.getConfig().getString("files.tags_file", "tags.yml");
+            Path tagsFile = plugin.getDataFolder().toPath().resolve(tagsFileName);
+            if (Files.exists(tagsFile)) {
+                Files.copy(tagsFile, directory.resolve(defaultShard));
+                plugin.getLogger().info("已將 " + tagsFileName + " 複製為分片 " + defaultShard);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("無法建立標籤分片目錄 " + directory + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 掃描分片目錄並發布新快照
+     * 只有大小、修改時間與內容雜湊都改變的分片才會重新解析
+     */
+    @Override
+    public synchronized Collection<Tag> loadAllTags() {
+        scanShards();
+        return catalog.getTags();
+    }
+
+    /**
+     * 掃描分片目錄並發布新快照
+     * 只在持有 this 鎖時呼叫
+     *
+     * @return 是否所有分片都成功讀取
+     */
+    private boolean scanShards() {
+        Set<String> present = new HashSet<>();
+        int parsed = 0;
+        boolean complete = true;
+        Set<String> affected = new LinkedHashSet<>(); // 需要重新決定所屬分片的標籤ID
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(SHARD_SUFFIX) || !Files.isRegularFile(file)) {
+                    continue;
+                }
+                present.add(name);
+                Shard shard = shards.computeIfAbsent(name, key -> new Shard(key, file));
+                Set<String> previous = shard.tags.keySet();
+                try {
+                    if (refreshShard(shard)) {
+                        parsed++;
+                        affected.addAll(shard.tags.keySet());
+                        affected.addAll(previous);
+                    }
+                } catch (IOException | InvalidConfigurationException e) {
+                    // 解析失敗的分片保留上一次的內容
+                    plugin.getLogger().warning("無法載入標籤分片 " + shard.name + ": " + e.getMessage());
+                    complete = false;
+                }
+            }
+        } catch (IOException e) {
+            // 保留目前的快照，避免目錄暫時無法讀取時清空所有標籤
+            plugin.getLogger().severe("無法讀取標籤分片目錄 " + directory + ": " + e.getMessage());
+            return false;
+        }
+
+        // 被刪除的分片 (尚未寫回的新分片除外)
+        Iterator<Shard> iterator = shards.values().iterator();
+        while (iterator.hasNext()) {
+            Shard shard = iterator.next();
+            if (!present.contains(shard.name) && !shard.dirty) {
+                affected.addAll(shard.tags.keySet());
+                iterator.remove();
+            }
+        }
+
+        publish(affected);
+        if (plugin.getConfig().getBoolean("debug.enabled", false)) {
+            plugin.getLogger().info("標籤分片: 共 " + shards.size() + " 個，重新解析 " + parsed + " 個");
+        }
+        return complete;
+    }
+
+    /**
+     * 依檔案狀態決定是否重新解析分片
+     * 只在持有 this 鎖時呼叫
+     *
+     * @return 是否重新解析
+     * @throws IOException 無法讀取分片檔案
+     * @throws InvalidConfigurationException 分片格式錯誤
+     */
+    private boolean refreshShard(Shard shard) throws IOException, InvalidConfigurationException {
+        if (shard.dirty) {
+            // 尚有未寫回的修改，以記憶體中的內容為準
+            return false;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(shard.file, BasicFileAttributes.class);
+        long modified = attributes.lastModifiedTime().toMillis();
+        if (attributes.size() == shard.size && modified == shard.modified) {
+            return false;
+        }
+
+        byte[] content = Files.readAllBytes(shard.file);
+        byte[] hash = DataFiles.sha256(content);
+        boolean changed = !Arrays.equals(hash, shard.hash);
+        if (changed) {
+            // 格式錯誤時不記錄檔案狀態，下次重新載入仍會重新讀取並回報
+            YamlConfiguration config = new YamlConfiguration();
+            config.loadFromString(new String(content, StandardCharsets.UTF_8));
+            shard.config = config;
+            shard.tags = parseTags(shard.name, config);
+            shard.hash = hash;
+        }
+        shard.size = attributes.size();
+        shard.modified = modified;
+        return changed;
+    }
+
+    private Map<String, Tag> parseTags(String shardName, YamlConfiguration config) {
+        Map<String, Tag> tags = new LinkedHashMap<>();
+        ConfigurationSection tagsSection = config.getConfigurationSection("tags");
+        if (tagsSection == null) {
+            plugin.getLogger().warning("No tags section found in " + shardName + "!");
+            return tags;
+        }
+
+        for (String tagId : tagsSection.getKeys(false)) {
+            String display = tagsSection.getString(tagId + ".display", "&7[" + tagId + "]&f");
+            tags.put(tagId, new Tag(tagId, display, permissionPrefix));
+        }
+        return tags;
+    }
+
+    /**
+     * 重新決定指定標籤的所屬分片，並把差異套用到目前的快照
+     * 只在持有 this 鎖時呼叫；未受影響的標籤沿用目前快照中的物件
+     *
+     * @param ids 所在分片有變更的標籤ID
+     */
+    private void publish(Collection<String> ids) {
+        List<Tag> added = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        for (String id : ids) {
+            Shard owner = resolveOwner(id);
+            if (owner == null) {
+                owners.remove(id);
+                if (catalog.contains(id)) {
+                    removed.add(id);
+                }
+                continue;
+            }
+
+            owners.put(id, owner);
+            Tag tag = owner.tags.get(id);
+            if (catalog.get(id) != tag) {
+                added.add(tag);
+            }
+        }
+        catalog = catalog.withChanges(added, removed);
+    }
+
+    /**
+     * 找出標籤所屬的分片
+     * 只在持有 this 鎖時呼叫；同一個ID出現在多個分片時，以檔名排序較前者為準
+     *
+     * @return 所屬分片，沒有任何分片包含此ID時為 null
+     */
+    private Shard resolveOwner(String id) {
+        Shard owner = null;
+        for (Shard shard : shards.values()) {
+            if (!shard.tags.containsKey(id)) {
+                continue;
+            }
+            if (owner == null) {
+                owner = shard;
+            } else {
+                plugin.getLogger().warning("標籤 " + id + " 同時存在於 " + owner.name + " 與 "
+                        + shard.name + "，略過後者");
+            }
+        }
+        return owner;
+    }
+
+    @Override
+    public TagCatalog getCatalog() {
+        return catalog;
+    }
+
+    @Override
+    public Optional<Tag> findById(String id) {
+        return Optional.ofNullable(catalog.get(id));
+    }
+
+    @Override
+    public boolean save(Tag tag) {
+        // SRP: 只修改標籤所屬的分片 (新標籤放入預設分片)，檔案寫入交由背景執行緒合併處理
+        synchronized (this) {
+            Shard shard = owners.get(tag.getId());
+            if (shard == null) {
+                shard = shards.computeIfAbsent(defaultShard, name -> new Shard(name, directory.resolve(name)));
+                owners.put(tag.getId(), shard);
+            }
+            shard.config.set("tags." + tag.getId() + ".display", tag.getDisplay());
+            shard.tags.put(tag.getId(), tag);
+            shard.dirty = true;
+            catalog = catalog.withTag(tag);
+        }
+        flusher.markDirty();
+        return true;
+    }
+
+    @Override
+    public boolean delete(String id) {
+        // SRP: 只修改標籤所屬的分片，檔案寫入交由背景執行緒合併處理
+        synchronized (this) {
+            Shard shard = owners.remove(id);
+            if (shard == null) {
+                return false;
+            }
+            shard.config.set("tags." + id, null);
+            shard.tags.remove(id);
+            shard.dirty = true;
+            // 其他分片中同ID的標籤 (原本被略過) 改為生效，與重新載入後的結果一致
+            publish(List.of(id));
+        }
+        flusher.markDirty();
+        return true;
+    }
+
+    @Override
+    public boolean reload() {
+        // 先寫回尚未寫入的修改，避免被檔案內容覆蓋
+        flusher.flushNow(flushTimeoutMillis);
+
+        synchronized (this) {
+            String prefix = plugin.getConfig().getString("permission.tag_prefix", "koukeneko.tags.");
+            if (!prefix.equals(permissionPrefix)) {
+                // 權限前綴變更時所有標籤都需要重新建立
+                this.permissionPrefix = prefix;
+                for (Shard shard : shards.values()) {
+                    shard.size = -1L;
+                    shard.hash = null;
+                }
+            }
+            return scanShards();
+        }
+    }
+
+    @Override
+    public PersistenceMetrics getPersistenceMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown(flushTimeoutMillis);
+    }
+
+    /**
+     * 將有修改的分片寫入檔案
+     * 只在背景寫入執行緒上執行: 在鎖內取得內容，再逐一寫入暫存檔並以原子改名取代原檔；
+     * 寫入後記錄新的檔案狀態，下次重新載入時不會重新解析自己寫入的檔案
+     */
+    private void writeDirtyShards() throws IOException {
+        Map<Shard, String> contents = new LinkedHashMap<>();
+        synchronized (this) {
+            for (Shard shard : shards.values()) {
+                if (shard.dirty) {
+                    contents.put(shard, shard.config.saveToString());
+                    shard.dirty = false;
+                }
+            }
+        }
+
+        IOException failure = null;
+        for (Map.Entry<Shard, String> entry : contents.entrySet()) {
+            Shard shard = entry.getKey();
+            byte[] content = entry.getValue().getBytes(StandardCharsets.UTF_8);
+            try {
+                writeShard(shard.file, content);
+                BasicFileAttributes attributes = Files.readAttributes(shard.file, BasicFileAttributes.class);
+                synchronized (this) {
+                    shard.size = attributes.size();
+                    shard.modified = attributes.lastModifiedTime().toMillis();
+                    shard.hash = DataFiles.sha256(content);
+                }
+            } catch (IOException e) {
+                // 保留待寫回狀態，下一個間隔再重試
+                synchronized (this) {
+                    shard.dirty = true;
+                }
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void writeShard(Path target, byte[] content) throws IOException {
+        DataFolderWatcher watcher = plugin.getFileWatcher();
+        if (watcher != null) {
+            watcher.recordOwnWrite(target, content);
+        }
+
+        DataFiles.writeAtomically(target, content);
+    }
+}
@@ -0,0 +1,345 @@
+package dev.doeshing.koukeNekoNametag.core.tag;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * 基於內嵌 SQLite 資料庫的標籤資料儲存實作
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 專門負責資料庫存取
+ * - DIP (依賴反轉原則): 實作TagRepository介面
+ * - LSP (里氏替換原則): 可直接取代 FileTagRepository
+ *
+ * 適合大量標籤: 載入時只需要一次查詢，修改只寫入變更的資料列，不需要重寫整份文件。
+ * 與 FileTagRepository 相同，讀取一律使用記憶體中的 {@link TagCatalog} 快照；
+ * 修改先記錄在待寫回清單中，由 {@link WriteBehindFlusher} 在背景以單一交易批次寫入。
+ * 第一次使用時若資料庫是空的，會從標籤檔案 (tags.yml) 匯入一次。
+ *
+ * 使用伺服器內建的 SQLite JDBC 驅動程式，不需要外部服務。
+ */
+public class SqliteTagRepository implements TagRepository {
+
+    private static final String MIGRATION_KEY = "migrated_from";
+
+    private final KoukeNekoNametag plugin;
+    private final Connection connection; // 所有資料庫操作都在 connectionLock 內進行
+    private final Object connectionLock = new Object();
+    private volatile TagCatalog catalog = TagCatalog.EMPTY; // 目前發布的快照
+    private String permissionPrefix;
+    private final Map<String, Tag> pendingWrites = new LinkedHashMap<>(); // 標籤ID -> 新內容 (null 表示刪除)，受 this 保護
+    private final PersistenceMetrics metrics = new PersistenceMetrics();
+    private final WriteBehindFlusher flusher;
+    private final long flushTimeoutMillis;
+
+    /**
+     * 建立資料庫標籤儲存庫
+     * @param plugin 外掛實例
+     * @throws IllegalStateException 找不到 SQLite 驅動程式或無法開啟資料庫
+     */
+    public SqliteTagRepository(KoukeNekoNametag plugin) {
+        this.plugin = plugin;
+        this.permissionPrefix = plugin.getConfig().getString("permission.tag_prefix", "koukeneko.tags.");
+        this.flushTimeoutMillis = plugin.getConfig().getLong("storage.shutdown_flush_timeout_ms", 5000L);
+        this.connection = openConnection();
+        try {
+            createSchema();
+            migrateFromYaml();
+        } catch (SQLException e) {
+            closeConnection();
+            throw new IllegalStateException("無法初始化標籤資料庫: " + e.getMessage(), e);
+        }
+        loadAllTags();
+        this.flusher = new WriteBehindFlusher(
+                "KoukeNeko-TagWriter",
+                plugin.getLogger(),
+                plugin.getConfig().getLong("storage.flush_interval_ms", 1000L),
+                metrics,
+                this::writePendingChanges);
+    }
+
+    /**
+     * 開啟資料庫連線
+     * 遵循SRP: 專門負責驅動程式載入與連線設定
+     */
+    private Connection openConnection() {
+        File databaseFile = new File(plugin.getDataFolder(),
+                plugin.getConfig().getString("files.tags_database", "tags.db"));
+        try {
+            Class.forName("org.sqlite.JDBC");
+            Connection opened = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+            try (Statement statement = opened.createStatement()) {
+                // WAL 讓背景寫入不阻擋讀取；每次交易不強制同步到磁碟
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("PRAGMA synchronous=NORMAL");
+            }
+            return opened;
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("找不到 SQLite JDBC 驅動程式", e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("無法開啟標籤資料庫 " + databaseFile.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 建立資料表
+     * 標籤ID為主鍵，查找、更新與刪除都透過主鍵索引完成
+     */
+    private void createSchema() throws SQLException {
+        synchronized (connectionLock) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE IF NOT EXISTS tags ("
+                        + "id TEXT PRIMARY KEY NOT NULL, "
+                        + "display TEXT NOT NULL)");
+                statement.execute("CREATE TABLE IF NOT EXISTS meta ("
+                        + "key TEXT PRIMARY KEY NOT NULL, "
+                        + "value TEXT NOT NULL)");
+            }
+        }
+    }
+
+    /**
+     * 從標籤檔案匯入一次
+     * 只有在資料庫從未匯入且沒有任何標籤時執行；原本的檔案保留不動
+     */
+    private void migrateFromYaml() throws SQLException {
+        String tagsFileName = plugin.getConfig().getString("files.tags_file", "tags.yml");
+        File tagsFile = new File(plugin.getDataFolder(), tagsFileName);
+
+        synchronized (connectionLock) {
+            if (readMeta(MIGRATION_KEY) != null || countTags() > 0) {
+                return;
+            }
+
+            int imported = 0;
+            if (tagsFile.exists()) {
+                ConfigurationSection tagsSection = YamlConfiguration.loadConfiguration(tagsFile)
+                        .getConfigurationSection("tags");
+                if (tagsSection != null) {
+                    Map<String, Tag> tags = new LinkedHashMap<>();
+                    for (String tagId : tagsSection.getKeys(false)) {
+                        String display = tagsSection.getString(tagId + ".display", "&7[" + tagId + "]&f");
+                        tags.put(tagId, new Tag(tagId, display, permissionPrefix));
+                    }
+                    imported = tags.size();
+                    writeBatch(tags, MIGRATION_KEY, tagsFileName);
+                }
+            }
+            if (imported == 0) {
+                writeBatch(Collections.emptyMap(), MIGRATION_KEY, tagsFileName);
+            }
+            plugin.getLogger().info("已從 " + tagsFileName + " 匯入 " + imported + " 個標籤到資料庫");
+        }
+    }
+
+    private String readMeta(String key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT value FROM meta WHERE key = ?")) {
+            statement.setString(1, key);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() ? result.getString(1) : null;
+            }
+        }
+    }
+
+    private int countTags() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM tags")) {
+            return result.next() ? result.getInt(1) : 0;
+        }
+    }
+
+    @Override
+    public Collection<Tag> loadAllTags() {
+        loadFromDatabase();
+        return catalog.getTags();
+    }
+
+    /**
+     * 讀取資料庫中的標籤並發布新快照
+     *
+     * @return 是否成功讀取
+     */
+    private boolean loadFromDatabase() {
+        // SRP: 專門處理標籤載入邏輯，依建立順序讀取
+        boolean debug = plugin.getConfig().getBoolean("debug.enabled", false);
+        List<Tag> loaded = new ArrayList<>();
+        synchronized (connectionLock) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet result = statement.executeQuery("SELECT id, display FROM tags ORDER BY rowid")) {
+                while (result.next()) {
+                    String tagId = result.getString(1);
+                    String display = result.getString(2);
+                    loaded.add(new Tag(tagId, display, permissionPrefix));
+
+                    // 除錯日誌
+                    if (debug) {
+                        plugin.getLogger().info("Loaded tag: " + tagId + " with display: " + display);
+                    }
+                }
+            } catch (SQLException e) {
+                // 保留目前的快照，避免資料庫暫時無法讀取時清空所有標籤
+                plugin.getLogger().severe("讀取標籤資料庫失敗: " + e.getMessage());
+                return false;
+            }
+        }
+
+        // 以單一參考寫入發布新快照
+        synchronized (this) {
+            catalog = catalog.replaceWith(loaded);
+        }
+        return true;
+    }
+
+    @Override
+    public TagCatalog getCatalog() {
+        return catalog;
+    }
+
+    @Override
+    public Optional<Tag> findById(String id) {
+        return Optional.ofNullable(catalog.get(id));
+    }
+
+    @Override
+    public boolean save(Tag tag) {
+        // SRP: 專門處理標籤儲存，資料庫寫入交由背景執行緒合併處理
+        synchronized (this) {
+            pendingWrites.put(tag.getId(), tag);
+            catalog = catalog.withTag(tag);
+        }
+        flusher.markDirty();
+        return true;
+    }
+
+    @Override
+    public boolean delete(String id) {
+        // SRP: 專門處理標籤刪除，資料庫寫入交由背景執行緒合併處理
+        synchronized (this) {
+            if (!catalog.contains(id)) {
+                return false;
+            }
+            pendingWrites.put(id, null);
+            catalog = catalog.withoutTag(id);
+        }
+        flusher.markDirty();
+        return true;
+    }
+
+    @Override
+    public boolean reload() {
+        // 先寫回尚未寫入的修改，避免重新讀取時遺失
+        flusher.flushNow(flushTimeoutMillis);
+
+        // SRP: 專門處理重新載入 (資料庫可能被外部工具修改)
+        this.permissionPrefix = plugin.getConfig().getString("permission.tag_prefix", "koukeneko.tags.");
+        return loadFromDatabase();
+    }
+
+    @Override
+    public PersistenceMetrics getPersistenceMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown(flushTimeoutMillis);
+        closeConnection();
+    }
+
+    private void closeConnection() {
+        synchronized (connectionLock) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                plugin.getLogger().warning("關閉標籤資料庫失敗: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 將待寫回的修改寫入資料庫
+     * 只在背景寫入執行緒上執行；失敗時把尚未被新修改取代的項目放回待寫回清單
+     */
+    private void writePendingChanges() throws SQLException {
+        Map<String, Tag> changes;
+        synchronized (this) {
+            if (pendingWrites.isEmpty()) {
+                return;
+            }
+            changes = new LinkedHashMap<>(pendingWrites);
+            pendingWrites.clear();
+        }
+
+        try {
+            synchronized (connectionLock) {
+                writeBatch(changes, null, null);
+            }
+        } catch (SQLException e) {
+            synchronized (this) {
+                for (Map.Entry<String, Tag> change : changes.entrySet()) {
+                    if (!pendingWrites.containsKey(change.getKey())) {
+                        pendingWrites.put(change.getKey(), change.getValue());
+                    }
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 以單一交易寫入一批修改
+     * 只在持有 connectionLock 時呼叫
+     *
+     * @param changes 標籤ID -> 新內容 (null 表示刪除)
+     * @param metaKey 同一交易中要寫入的中繼資料鍵，不需要時為 null
+     * @param metaValue 中繼資料值
+     */
+    private void writeBatch(Map<String, Tag> changes, String metaKey, String metaValue) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement upsert = connection.prepareStatement(
+                "INSERT INTO tags (id, display) VALUES (?, ?) "
+                        + "ON CONFLICT(id) DO UPDATE SET display = excluded.display");
+             PreparedStatement remove = connection.prepareStatement("DELETE FROM tags WHERE id = ?")) {
+            boolean hasUpserts = false;
+            boolean hasRemovals = false;
+            for (Map.Entry<String, Tag> change : changes.entrySet()) {
+                if (change.getValue() != null) {
+                    upsert.setString(1, change.getKey());
+                    upsert.setString(2, change.getValue().getDisplay());
+                    upsert.addBatch();
+                    hasUpserts = true;
+                } else {
+                    remove.setString(1, change.getKey());
+                    remove.addBatch();
+                    hasRemovals = true;
+                }
+            }
+            if (hasRemovals) {
+                remove.executeBatch();
+            }
+            if (hasUpserts) {
+                upsert.executeBatch();
+            }
+
+            if (metaKey != null) {
+                try (PreparedStatement meta = connection.prepareStatement(
+                        "INSERT OR REPLACE INTO meta (key, value) VALUES (?, ?)")) {
+                    meta.setString(1, metaKey);
+                    meta.setString(2, metaValue);
+                    meta.executeUpdate();
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+}
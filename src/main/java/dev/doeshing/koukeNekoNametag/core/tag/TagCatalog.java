@@ -0,0 +1,157 @@
+package dev.doeshing.koukeNekoNametag.core.tag;
+
+import java.util.*;
+
+/**
+ * 標籤目錄快照 (不可變值物件)
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責保存某一時間點的完整標籤集合
+ * - 不變性 (Immutability): 建立後不再修改，可安全地在多執行緒間共享
+ *
+ * 每次載入、重載或修改標籤時都會建立新的快照並以單一參考寫入發布，
+ * 讀取端直接取得目前快照，不需要配置新物件或走訪 YAML。
+ * 版本號單調遞增，呼叫端可以比較版本號判斷自己的快取是否仍然有效。
+ */
+public final class TagCatalog {
+
+    /**
+     * 尚未載入任何標籤時使用的空快照
+     */
+    public static final TagCatalog EMPTY = new TagCatalog(0L, Collections.emptyList());
+
+    private final long version;                 // 快照版本號 (單調遞增)
+    private final List<Tag> tags;               // 依載入順序排列的標籤 (不可修改)
+    private final Map<String, Tag> tagsById;    // ID 索引 (不可修改)
+    private volatile TagIdIndex idIndex;        // 前綴索引 (第一次使用時建立)
+
+    /**
+     * 建立標籤目錄快照
+     *
+     * @param version 快照版本號
+     * @param tags 快照內容，會複製一份保存
+     */
+    TagCatalog(long version, Collection<Tag> tags) {
+        Map<String, Tag> index = new LinkedHashMap<>();
+        for (Tag tag : tags) {
+            index.put(tag.getId(), tag);
+        }
+        this.version = version;
+        this.tagsById = Collections.unmodifiableMap(index);
+        this.tags = Collections.unmodifiableList(new ArrayList<>(index.values()));
+    }
+
+    /**
+     * 獲取快照版本號
+     * @return 版本號，每次目錄變更都會遞增
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 獲取所有標籤
+     * @return 不可修改的標籤清單
+     */
+    public List<Tag> getTags() {
+        return tags;
+    }
+
+    /**
+     * 根據ID獲取標籤
+     * @param id 標籤ID
+     * @return 標籤物件，如果不存在則為 null
+     */
+    public Tag get(String id) {
+        return id == null ? null : tagsById.get(id);
+    }
+
+    /**
+     * 檢查是否包含指定標籤
+     * @param id 標籤ID
+     * @return 是否存在
+     */
+    public boolean contains(String id) {
+        return id != null && tagsById.containsKey(id);
+    }
+
+    /**
+     * 獲取標籤數量
+     */
+    public int size() {
+        return tags.size();
+    }
+
+    /**
+     * 獲取標籤ID的前綴索引
+     * 每個快照第一次查詢時建立，之後重複使用；併發時可能重複建立，但結果相同
+     *
+     * @return 此快照的前綴索引
+     */
+    public TagIdIndex getIdIndex() {
+        TagIdIndex index = idIndex;
+        if (index == null) {
+            index = new TagIdIndex(tags);
+            idIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * 建立加入 (或取代) 指定標籤後的新快照
+     * @param tag 要加入的標籤
+     * @return 版本號加一的新快照
+     */
+    TagCatalog withTag(Tag tag) {
+        Map<String, Tag> next = new LinkedHashMap<>(tagsById);
+        next.put(tag.getId(), tag);
+        return new TagCatalog(version + 1, next.values());
+    }
+
+    /**
+     * 建立移除指定標籤後的新快照
+     * @param id 要移除的標籤ID
+     * @return 版本號加一的新快照
+     */
+    TagCatalog withoutTag(String id) {
+        Map<String, Tag> next = new LinkedHashMap<>(tagsById);
+        next.remove(id);
+        return new TagCatalog(version + 1, next.values());
+    }
+
+    /**
+     * 建立套用新增 (或取代) 與移除後的新快照
+     * 已存在的標籤保留原本的位置，新的標籤排在最後
+     *
+     * @param added 要加入或取代的標籤
+     * @param removed 要移除的標籤ID
+     * @return 版本號加一的新快照，沒有任何變更時回傳目前的快照
+     */
+    TagCatalog withChanges(Collection<Tag> added, Collection<String> removed) {
+        if (added.isEmpty() && removed.isEmpty()) {
+            return this;
+        }
+        Map<String, Tag> next = new LinkedHashMap<>(tagsById);
+        for (String id : removed) {
+            next.remove(id);
+        }
+        for (Tag tag : added) {
+            next.put(tag.getId(), tag);
+        }
+        return new TagCatalog(version + 1, next.values());
+    }
+
+    /**
+     * 以新的內容建立下一個版本的快照
+     * @param tags 新的標籤集合
+     * @return 版本號加一的新快照
+     */
+    TagCatalog replaceWith(Collection<Tag> tags) {
+        return new TagCatalog(version + 1, tags);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TagCatalog{version=%d, size=%d}", version, tags.size());
+    }
+}
@@ -0,0 +1,124 @@
+package dev.doeshing.koukeNekoNametag.core.tag;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.job.TickBudgetedJob;
+import dev.doeshing.koukeNekoNametag.core.lang.Placeholders;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 刪除標籤後的權限清理工作
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責在標籤從目錄移除後，逐步收回權限並通知玩家
+ *
+ * 標籤本身在提交工作前就已從目錄移除；此工作每一步處理一位線上玩家
+ * (檢查權限、移除、通知)，全部處理完後再交由權限服務移除所有玩家與群組的權限，
+ * 最後回報受影響的線上玩家數量。工作被取消 (包含外掛停用) 時同樣會移除所有權限，只是略過通知。
+ * 結束或取消時也會清除此標籤的待處理權限操作與玩家的啟用標籤紀錄。
+ */
+public class TagDeletionJob extends TickBudgetedJob {
+
+    private final KoukeNekoNametag plugin;
+    private final TagManager tagManager;
+    private final Tag tag;
+    private final List<UUID> players;
+    private int index;
+    private int affectedPlayers;
+
+    /**
+     * @param plugin 外掛實例
+     * @param tagManager 標籤管理器
+     * @param owner 發起者，用於回報進度
+     * @param tag 已刪除的標籤
+     * @param players 刪除當下的線上玩家
+     */
+    public TagDeletionJob(KoukeNekoNametag plugin, TagManager tagManager, CommandSender owner,
+                          Tag tag, List<UUID> players) {
+        super("delete " + tag.getId(), owner, players.size());
+        this.plugin = plugin;
+        this.tagManager = tagManager;
+        this.tag = tag;
+        this.players = players;
+    }
+
+    @Override
+    protected boolean step() {
+        if (index >= players.size()) {
+            return false;
+        }
+
+        // 玩家可能已在工作進行中離線
+        Player player = Bukkit.getPlayer(players.get(index++));
+        if (player != null && player.hasPermission(tag.getPermission())) {
+            tagManager.removeTagPermission(player, tag);
+            plugin.getMessageManager().sendConfigMessage(player, "tag.tag_deleted_notice",
+                    Placeholders.of("display", tag.getDisplay()));
+            affectedPlayers++;
+        }
+
+        advance(1);
+        return index < players.size();
+    }
+
+    /**
+     * 線上玩家處理完後，移除所有玩家 (含離線) 與群組的權限並回報結果
+     */
+    @Override
+    protected void onFinish() {
+        purgeRecords();
+        revokeFromAll(true);
+    }
+
+    /**
+     * 被取消或外掛停用時仍移除所有玩家與群組的權限
+     * 標籤已從目錄移除，之後無法再透過指令重新刪除，因此不能留下尚未收回的權限
+     */
+    @Override
+    protected void onCancel() {
+        purgeRecords();
+        revokeFromAll(false);
+    }
+
+    /**
+     * 清除已刪除標籤的待處理權限操作與啟用標籤紀錄
+     * 工作進行中以相同ID重新建立的標籤已有新的紀錄，此時不清除
+     */
+    private void purgeRecords() {
+        if (tagManager.getTag(tag.getId()) != null) {
+            return;
+        }
+        int discarded = plugin.getPendingGrantQueue().discardTag(tag.getId());
+        int cleared = tagManager.clearActiveTagRecords(tag.getId());
+        if (discarded > 0 || cleared > 0) {
+            plugin.getLogger().info("已清除標籤 " + tag.getId() + " 的紀錄: 待處理權限 " + discarded
+                    + " 位，啟用標籤 " + cleared + " 位");
+        }
+    }
+
+    private void revokeFromAll(boolean report) {
+        tagManager.revokeTagFromAll(tag).handle((revoked, throwable) -> {
+            if (throwable != null) {
+                plugin.getLogger().warning("移除所有玩家的標籤權限失敗 (" + tag.getPermission() + "): "
+                        + throwable.getMessage());
+            } else if (revoked >= 0) {
+                plugin.getLogger().info("已移除 " + revoked + " 位玩家的標籤權限: " + tag.getPermission());
+            }
+            if (report && plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, this::reportResult);
+            }
+            return null;
+        });
+    }
+
+    private void reportResult() {
+        plugin.getJobManager().notifyOwner(this, "job.delete_completed", Placeholders.of(
+                "id", String.valueOf(getId()),
+                "display", tag.getDisplay(),
+                "count", String.valueOf(affectedPlayers)));
+    }
+}
@@ -14,6 +14,7 @@ public interface TagDisplayService {
     
     /**
      * 設定玩家的啟用標籤
+     * 若玩家已有其他標籤，實作需自行取代原本的標籤
      * @param player 目標玩家
      * @param tag 要設定的標籤
      * @return 操作是否成功
@@ -26,4 +27,16 @@ public interface TagDisplayService {
      * @return 操作是否成功
      */
     boolean removeActiveTag(Player player);
+    
+    /**
+     * 標籤目錄變更時的通知
+     * 需要依目錄建立資源的實作可在此更新
+     * @param catalog 新的目錄快照
+     */
+    void onCatalogChanged(TagCatalog catalog);
+    
+    /**
+     * 停用外掛時釋放顯示資源
+     */
+    void shutdown();
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package dev.doeshing.koukeNekoNametag.core.tag;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 標籤ID前綴索引 (不可變值物件)
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責以不分大小寫的前綴查找標籤ID
+ * - 不變性 (Immutability): 建立後不再修改，可安全地在多執行緒間共享
+ *
+ * 標籤ID依小寫形式排序後保存成陣列，查找時以二分搜尋找到第一個符合的位置，
+ * 再往後讀取直到前綴不符或達到數量上限，不需要走訪整個目錄。
+ * 每個目錄快照各自擁有一份索引，目錄版本變更時自然隨之重建。
+ */
+public final class TagIdIndex {
+
+    private final String[] keys; // 小寫ID (已排序)
+    private final String[] ids;  // 與 keys 對應的原始ID
+
+    TagIdIndex(List<Tag> tags) {
+        String[][] pairs = new String[tags.size()][];
+        for (int i = 0; i < pairs.length; i++) {
+            String id = tags.get(i).getId();
+            pairs[i] = new String[]{id.toLowerCase(Locale.ROOT), id};
+        }
+        Arrays.sort(pairs, Comparator.comparing((String[] pair) -> pair[0]));
+
+        this.keys = new String[pairs.length];
+        this.ids = new String[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            keys[i] = pairs[i][0];
+            ids[i] = pairs[i][1];
+        }
+    }
+
+    /**
+     * 以不分大小寫的前綴查找標籤ID
+     *
+     * @param prefix 使用者輸入的前綴
+     * @param limit 最多回傳幾筆
+     * @return 依字母順序排列的標籤ID
+     */
+    public List<String> findByPrefix(String prefix, int limit) {
+        if (limit <= 0 || keys.length == 0) {
+            return Collections.emptyList();
+        }
+
+        String key = prefix.toLowerCase(Locale.ROOT);
+        int start = lowerBound(key);
+        List<String> matches = new ArrayList<>(Math.min(limit, keys.length - start));
+        for (int i = start; i < keys.length && matches.size() < limit && keys[i].startsWith(key); i++) {
+            matches.add(ids[i]);
+        }
+        return matches;
+    }
+
+    /**
+     * 找出第一個不小於 key 的位置
+     */
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 獲取索引中的ID數量
+     */
+    public int size() {
+        return keys.length;
+    }
+}
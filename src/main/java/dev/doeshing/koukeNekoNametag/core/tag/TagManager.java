@@ -1,9 +1,11 @@
 package dev.doeshing.koukeNekoNametag.core.tag;
 
 import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 標籤管理服務
@@ -20,6 +22,8 @@ public class TagManager {
     private final TagRepository tagRepository;          // DIP: 依賴抽象而非具體實作
     private final TagPermissionService permissionService; // SRP: 分離權限管理責任
     private final TagDisplayService displayService;      // SRP: 分離顯示邏輯責任
+    private final AvailableTagCache availableTagCache;   // SRP: 分離可用標籤快取責任
+    private final ActiveTagStore activeTagStore;         // SRP: 分離啟用標籤持久化責任
 
     /**
      * 建立標籤管理器
@@ -29,11 +33,15 @@ public class TagManager {
     public TagManager(KoukeNekoNametag plugin, 
                      TagRepository tagRepository,
                      TagPermissionService permissionService,
-                     TagDisplayService displayService) {
+                     TagDisplayService displayService,
+                     AvailableTagCache availableTagCache,
+                     ActiveTagStore activeTagStore) {
         this.plugin = plugin;
         this.tagRepository = tagRepository;      // DIP: 注入抽象依賴
         this.permissionService = permissionService; // SRP: 分離職責
         this.displayService = displayService;    // SRP: 分離職責
+        this.availableTagCache = availableTagCache;
+        this.activeTagStore = activeTagStore;
     }
 
     /**
@@ -42,14 +50,39 @@ public class TagManager {
      */
     public void reload() {
         tagRepository.reload();
+        availableTagCache.invalidateAll();
+        displayService.onCatalogChanged(getCatalog());
+    }
+
+    /**
+     * 在目前的執行緒重新解析標籤 (供檔案監看器在背景執行緒呼叫)
+     * 新目錄以單一參考寫入發布；可用標籤與選單物品快取依目錄版本自動失效，
+     * 只有需要主執行緒的顯示服務更新會排回主執行緒
+     *
+     * @return 是否成功讀取全部的標籤資料，失敗的部分保留目前的標籤
+     */
+    public boolean reloadInBackground() {
+        boolean complete = tagRepository.reload();
+        TagCatalog catalog = getCatalog();
+        Bukkit.getScheduler().runTask(plugin, () -> displayService.onCatalogChanged(catalog));
+        return complete;
     }
 
     /**
      * 獲取所有標籤
      * SRP: 委派給儲存庫處理資料存取
+     * 直接回傳目前快照的內容，不會重新解析資料來源
      */
     public Collection<Tag> getAllTags() {
-        return tagRepository.loadAllTags();
+        return tagRepository.getCatalog().getTags();
+    }
+
+    /**
+     * 獲取目前的標籤目錄快照
+     * 呼叫端可比較 {@link TagCatalog#getVersion()} 判斷快取是否仍然有效
+     */
+    public TagCatalog getCatalog() {
+        return tagRepository.getCatalog();
     }
 
     /**
@@ -69,6 +102,7 @@ public class TagManager {
         Tag tag = new Tag(id, display, permissionPrefix);
         
         if (tagRepository.save(tag)) {
+            displayService.onCatalogChanged(getCatalog());
             return tag;
         }
         return null;
@@ -79,17 +113,32 @@ public class TagManager {
      * SRP: 委派給儲存庫處理資料刪除
      */
     public boolean deleteTag(String id) {
-        return tagRepository.delete(id);
+        if (!tagRepository.delete(id)) {
+            return false;
+        }
+        displayService.onCatalogChanged(getCatalog());
+        return true;
     }
 
     /**
      * 獲取玩家可用的所有標籤
-     * SRP: 委派給權限服務檢查權限
+     * SRP: 委派給權限服務檢查權限，結果依目錄版本快取
+     * @return 不可修改的可用標籤清單
      */
     public List<Tag> getAvailableTags(Player player) {
+        TagCatalog catalog = getCatalog();
+        return availableTagCache.getOrCompute(player.getUniqueId(), catalog.getVersion(),
+                () -> collectAvailableTags(player, catalog));
+    }
+    
+    /**
+     * 逐一檢查玩家擁有的標籤
+     * SRP: 專門負責權限走訪
+     */
+    private List<Tag> collectAvailableTags(Player player, TagCatalog catalog) {
         List<Tag> availableTags = new ArrayList<>();
         
-        for (Tag tag : getAllTags()) {
+        for (Tag tag : catalog.getTags()) {
             if (permissionService.hasPermission(player, tag)) {
                 availableTags.add(tag);
             }
@@ -112,10 +161,23 @@ public class TagManager {
             return false;
         }
         
-        // 先移除現有標籤
-        displayService.removeActiveTag(player);
-        
-        // SRP: 委派給顯示服務處理標籤設定
+        // SRP: 委派給顯示服務處理標籤設定 (包含取代現有標籤)
+        if (!displayService.setActiveTag(player, tag)) {
+            return false;
+        }
+        activeTagStore.setActiveTag(player.getUniqueId(), tag.getId());
+        return true;
+    }
+
+    /**
+     * 還原玩家上次選擇的標籤 (玩家加入時)
+     * 與 setActiveTag 相同，但不會再次寫入紀錄；已失去權限時清除紀錄
+     */
+    public boolean restoreActiveTag(Player player, Tag tag) {
+        if (!permissionService.hasPermission(player, tag)) {
+            activeTagStore.clearActiveTag(player.getUniqueId());
+            return false;
+        }
         return displayService.setActiveTag(player, tag);
     }
 
@@ -124,7 +186,22 @@ public class TagManager {
      * SRP: 委派給顯示服務處理
      */
     public boolean removeActiveTag(Player player) {
-        return displayService.removeActiveTag(player);
+        if (!displayService.removeActiveTag(player)) {
+            return false;
+        }
+        activeTagStore.clearActiveTag(player.getUniqueId());
+        return true;
+    }
+
+    /**
+     * 獲取玩家目前的啟用標籤
+     * 直接查詢記憶體中的紀錄，任何執行緒都可以呼叫，玩家不需要在線
+     *
+     * @return 標籤，沒有選擇標籤或標籤已刪除時為 null
+     */
+    public Tag getActiveTag(UUID playerId) {
+        String tagId = activeTagStore.getActiveTagId(playerId);
+        return tagId != null ? getCatalog().get(tagId) : null;
     }
 
     /**
@@ -132,7 +209,9 @@ public class TagManager {
      * SRP: 委派給權限服務處理
      */
     public boolean giveTagPermission(Player player, Tag tag) {
-        return permissionService.givePermission(player, tag);
+        boolean result = permissionService.givePermission(player, tag);
+        availableTagCache.invalidate(player.getUniqueId());
+        return result;
     }
 
     /**
@@ -140,6 +219,63 @@ public class TagManager {
      * SRP: 委派給權限服務處理
      */
     public boolean removeTagPermission(Player player, Tag tag) {
-        return permissionService.removePermission(player, tag);
+        boolean result = permissionService.removePermission(player, tag);
+        availableTagCache.invalidate(player.getUniqueId());
+        return result;
+    }
+    
+    /**
+     * 批次修改多位玩家的標籤權限
+     * SRP: 委派給權限服務處理，並清除這些玩家的可用標籤快取
+     *
+     * @param playerIds 目標玩家UUID (可包含離線玩家)
+     * @param tag 標籤
+     * @param grant true 為給予，false 為移除
+     * @return 完成時回傳成功修改的玩家數量
+     */
+    public CompletableFuture<Integer> applyTagPermissionBatch(Collection<UUID> playerIds, Tag tag, boolean grant) {
+        CompletableFuture<Integer> result = permissionService.applyPermissionBatch(playerIds, tag, grant);
+        for (UUID playerId : playerIds) {
+            availableTagCache.invalidate(playerId);
+        }
+        return result;
+    }
+    
+    /**
+     * 權限服務是否可以直接修改離線玩家的權限
+     */
+    public boolean supportsOfflineTargets() {
+        return permissionService.supportsOfflineTargets();
+    }
+    
+    /**
+     * 移除所有玩家與群組的標籤權限
+     * SRP: 委派給權限服務處理，並清除所有可用標籤快取
+     *
+     * @param tag 標籤
+     * @return 完成時回傳被移除權限的玩家數量，無法得知時為 -1
+     */
+    public CompletableFuture<Integer> revokeTagFromAll(Tag tag) {
+        CompletableFuture<Integer> result = permissionService.revokeFromAll(tag);
+        availableTagCache.invalidateAll();
+        return result;
+    }
+    
+    /**
+     * 移除所有選擇指定標籤的玩家紀錄
+     * SRP: 委派給啟用標籤儲存處理
+     *
+     * @param tagId 已刪除的標籤ID
+     * @return 被移除紀錄的玩家數量
+     */
+    public int clearActiveTagRecords(String tagId) {
+        return activeTagStore.clearTag(tagId);
+    }
+    
+    /**
+     * 獲取玩家可用標籤快取
+     */
+    public AvailableTagCache getAvailableTagCache() {
+        return availableTagCache;
     }
 }
\ No newline at end of file
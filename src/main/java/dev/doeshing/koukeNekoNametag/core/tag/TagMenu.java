@@ -1,20 +1,19 @@
 package dev.doeshing.koukeNekoNametag.core.tag;
 
 import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.lang.Placeholders;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Bukkit;
-import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.player.PlayerKickEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.Inventory;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 
-import java.util.*;
+import java.util.List;
 
 /**
  * 標籤選擇選單管理器
@@ -25,19 +24,21 @@ import java.util.*;
  * - OCP (開放封閉原則): 可擴展選單功能而不修改現有程式碼
  */
 public class TagMenu implements Listener {
+    private static final int PAGE_SIZE = 45; // 分頁時每頁的標籤格數 (前五列)
+
     private final KoukeNekoNametag plugin;
     private final TagManager tagManager;
-    private final Map<UUID, Inventory> openMenus = new HashMap<>(); // SRP: 專門管理開啟的選單
-    private final Map<UUID, List<Tag>> menuTags = new HashMap<>();   // SRP: 專門管理選單標籤映射
+    private final TagMenuItemCache itemCache; // SRP: 專門管理選單物品原型
 
     /**
      * 建立標籤選單管理器
      * 
      * DIP原則: 依賴TagManager抽象而非具體實作
      */
-    public TagMenu(KoukeNekoNametag plugin, TagManager tagManager) {
+    public TagMenu(KoukeNekoNametag plugin, TagManager tagManager, TagMenuItemCache itemCache) {
         this.plugin = plugin;
         this.tagManager = tagManager;
+        this.itemCache = itemCache;
         Bukkit.getPluginManager().registerEvents(this, plugin);
     }
 
@@ -54,111 +55,65 @@ public class TagMenu implements Listener {
             return;
         }
 
-        // SRP: 委派給專門的方法建立選單
-        Inventory menu = createMenuInventory(availableTags);
+        // SRP: 委派給專門的方法建立選單，選單狀態由容器持有者攜帶
+        TagMenuHolder holder = new TagMenuHolder(player.getUniqueId(), availableTags, hasAdminPermission(player));
+        createMenuInventory(holder, availableTags);
         
-        // SRP: 委派給專門的方法填充選單
-        populateMenu(menu, availableTags, player);
-        addRemoveButton(menu);
-
-        // SRP: 委派給專門的方法註冊選單
-        registerMenu(player, menu, availableTags);
+        // SRP: 委派給專門的方法填充第一頁
+        renderPage(holder);
         
         // 打開選單
-        player.openInventory(menu);
+        player.openInventory(holder.getInventory());
     }
     
     /**
-     * 建立選單定器
-     * SRP: 專門負責選單定器的建立
+     * 建立選單容器
+     * SRP: 專門負責選單容器的建立
+     *
+     * 標籤數量放得下時依數量決定列數，超過一頁時固定為六列並分頁，最後一列保留給控制按鈕
      */
-    private Inventory createMenuInventory(List<Tag> availableTags) {
-        int rows = Math.min(6, (availableTags.size() + 8) / 9 + 1);
-        Component title = LegacyComponentSerializer.legacyAmpersand().deserialize(
+    private void createMenuInventory(TagMenuHolder holder, List<Tag> availableTags) {
+        int rows = availableTags.size() > PAGE_SIZE ? 6 : (availableTags.size() + 8) / 9 + 1;
+        Component title = plugin.getMessageManager().format(
                 plugin.getMessageManager().getMessage("menu.title"));
-        return Bukkit.createInventory(null, rows * 9, title);
+        holder.attach(Bukkit.createInventory(holder, rows * 9, title));
     }
     
     /**
-     * 新增移除按鈕
-     * SRP: 專門負責移除按鈕的建立
+     * 在原本的容器內繪製目前頁面
+     * SRP: 專門負責頁面物品的設定，只建立可見頁面的物品
      */
-    private void addRemoveButton(Inventory menu) {
-        ItemStack removeItem = new ItemStack(Material.BARRIER);
-        ItemMeta removeMeta = removeItem.getItemMeta();
-        removeMeta.displayName(LegacyComponentSerializer.legacyAmpersand().deserialize(
-                plugin.getMessageManager().getMessage("menu.remove_button")));
-        removeItem.setItemMeta(removeMeta);
-        menu.setItem(menu.getSize() - 1, removeItem);
-    }
-    
-    /**
-     * 註冊選單
-     * SRP: 專門負責選單的註冊和狀態管理
-     */
-    private void registerMenu(Player player, Inventory menu, List<Tag> availableTags) {
-        openMenus.put(player.getUniqueId(), menu);
-        menuTags.put(player.getUniqueId(), availableTags);
-    }
+    private void renderPage(TagMenuHolder holder) {
+        TagCatalog catalog = tagManager.getCatalog();
+        Inventory menu = holder.getInventory();
+        List<Tag> tags = holder.getTags();
+        int offset = holder.getPage() * holder.getItemSlots();
 
-    /**
-     * 填充選單物品
-     * SRP: 專門負責選單物品的建立和設定
-     */
-    private void populateMenu(Inventory menu, List<Tag> tags, Player player) {
-        for (int i = 0; i < tags.size(); i++) {
-            Tag tag = tags.get(i);
-            ItemStack item = createTagMenuItem(tag, player);
-            menu.setItem(i, item);
+        for (int slot = 0; slot < holder.getItemSlots(); slot++) {
+            int index = offset + slot;
+            Tag tag = index < tags.size() ? tags.get(index) : null;
+            holder.setSlotTag(slot, tag);
+            menu.setItem(slot, tag != null ? itemCache.getTagItem(catalog, tag, holder.isAdmin()) : null);
         }
+
+        renderControls(holder);
     }
-    
+
     /**
-     * 建立標籤選單物品
-     * SRP: 專門負責單一標籤物品的建立
+     * 設定控制列: 上一頁、下一頁與移除按鈕
+     * SRP: 專門負責控制按鈕的設定
      */
-    private ItemStack createTagMenuItem(Tag tag, Player player) {
-        ItemStack item = new ItemStack(Material.NAME_TAG);
-        ItemMeta meta = item.getItemMeta();
-        
-        // 設定項目名稱
-        meta.displayName(LegacyComponentSerializer.legacyAmpersand().deserialize(tag.getDisplay()));
-        
-        // SRP: 委派給專門的方法建立描述
-        meta.lore(createTagItemLore(tag, player));
-        
-        item.setItemMeta(meta);
-        return item;
+    private void renderControls(TagMenuHolder holder) {
+        Inventory menu = holder.getInventory();
+        menu.setItem(holder.getPreviousSlot(), holder.hasPreviousPage()
+                ? itemCache.createPageButton(false, holder.getPage(), holder.getPages())
+                : null);
+        menu.setItem(holder.getNextSlot(), holder.hasNextPage()
+                ? itemCache.createPageButton(true, holder.getPage() + 2, holder.getPages())
+                : null);
+        menu.setItem(holder.getRemoveSlot(), itemCache.getRemoveButton());
     }
-    
-    /**
-     * 建立標籤物品的描述文字
-     * SRP: 專門負責物品描述的建立
-     */
-    private List<Component> createTagItemLore(Tag tag, Player player) {
-        List<Component> lore = new ArrayList<>();
-        
-        // 新增選擇提示
-        lore.add(LegacyComponentSerializer.legacyAmpersand().deserialize(
-                plugin.getMessageManager().getMessage("menu.select_tag")));
-        
-        // 新增標籤ID資訊
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("id", tag.getId());
-        lore.add(LegacyComponentSerializer.legacyAmpersand().deserialize(
-                plugin.getMessageManager().getMessage("menu.tag_id", placeholders)));
 
-        // 為管理員新增權限資訊
-        if (hasAdminPermission(player)) {
-            placeholders.clear();
-            placeholders.put("permission", tag.getPermission());
-            lore.add(LegacyComponentSerializer.legacyAmpersand().deserialize(
-                    plugin.getMessageManager().getMessage("menu.tag_permission", placeholders)));
-        }
-        
-        return lore;
-    }
-    
     /**
      * 檢查是否為管理員
      * SRP: 專門負責權限檢查
@@ -170,57 +125,56 @@ public class TagMenu implements Listener {
     /**
      * 處理選單點選事件
      * SRP: 專門負責選單事件的處理和路由
+     *
+     * 非本插件選單的點選只需一次型別檢查即可排除
      */
     @EventHandler
     public void onInventoryClick(InventoryClickEvent event) {
-        Player player = (Player) event.getWhoClicked();
-        UUID playerId = player.getUniqueId();
-        
-        // SRP: 委派給專門的方法檢查是否為我們管理的選單
-        if (!isOurMenu(playerId, event.getInventory())) {
+        if (!(event.getInventory().getHolder(false) instanceof TagMenuHolder holder)) {
             return;
         }
         
         event.setCancelled(true);
         
-        int slot = event.getSlot();
-        if (slot < 0) {
+        Player player = (Player) event.getWhoClicked();
+        if (holder.isClosed() || !player.getUniqueId().equals(holder.getViewerId())) {
             return;
         }
         
-        Inventory openMenu = openMenus.get(playerId);
+        // 只處理選單本身的格子，玩家背包的點選只取消不處理
+        int slot = event.getRawSlot();
+        if (slot < 0 || slot >= holder.getInventory().getSize()) {
+            return;
+        }
         
-        // SRP: 委派給專門的方法處理移除按鈕點選
-        if (isRemoveButtonClick(slot, openMenu, event.getCurrentItem())) {
+        // SRP: 委派給專門的方法處理控制按鈕點選
+        if (slot == holder.getRemoveSlot()) {
             handleRemoveButtonClick(player);
             return;
         }
+        if (slot == holder.getPreviousSlot() && holder.hasPreviousPage()) {
+            turnPage(holder, holder.getPage() - 1);
+            return;
+        }
+        if (slot == holder.getNextSlot() && holder.hasNextPage()) {
+            turnPage(holder, holder.getPage() + 1);
+            return;
+        }
         
         // SRP: 委派給專門的方法處理標籤選擇
-        handleTagSelection(player, playerId, slot);
-    }
-    
-    /**
-     * 檢查是否為我們管理的選單
-     * SRP: 專門負責選單驗證
-     */
-    private boolean isOurMenu(UUID playerId, Inventory clickedInventory) {
-        if (!openMenus.containsKey(playerId)) {
-            return false;
+        Tag selectedTag = holder.getSlotTag(slot);
+        if (selectedTag != null) {
+            handleTagSelection(player, selectedTag);
         }
-        
-        Inventory openMenu = openMenus.get(playerId);
-        return clickedInventory == openMenu;
     }
     
     /**
-     * 檢查是否為移除按鈕點選
-     * SRP: 專門負責移除按鈕的識別
+     * 翻頁
+     * SRP: 專門負責在同一個容器內切換頁面，不重新開啟選單
      */
-    private boolean isRemoveButtonClick(int slot, Inventory menu, ItemStack clickedItem) {
-        return slot == menu.getSize() - 1 && 
-               clickedItem != null && 
-               clickedItem.getType() == Material.BARRIER;
+    private void turnPage(TagMenuHolder holder, int page) {
+        holder.setPage(page);
+        renderPage(holder);
     }
     
     /**
@@ -237,14 +191,7 @@ public class TagMenu implements Listener {
      * 處理標籤選擇
      * SRP: 專門負責標籤選擇操作
      */
-    private void handleTagSelection(Player player, UUID playerId, int slot) {
-        List<Tag> tags = menuTags.get(playerId);
-        if (slot >= tags.size()) {
-            return;
-        }
-        
-        Tag selectedTag = tags.get(slot);
-        
+    private void handleTagSelection(Player player, Tag selectedTag) {
         // SRP: 委派給TagManager處理標籤設定
         if (tagManager.setActiveTag(player, selectedTag)) {
             sendTagSetSuccessMessage(player, selectedTag);
@@ -260,9 +207,8 @@ public class TagMenu implements Listener {
      * SRP: 專門負責成功訊息的傳送
      */
     private void sendTagSetSuccessMessage(Player player, Tag selectedTag) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("display", selectedTag.getDisplay());
-        plugin.getMessageManager().sendConfigMessage(player, "menu.tag_set", placeholders);
+        plugin.getMessageManager().sendConfigMessage(player, "menu.tag_set",
+                Placeholders.of("display", selectedTag.getDisplay()));
     }
 
     /**
@@ -271,16 +217,32 @@ public class TagMenu implements Listener {
      */
     @EventHandler
     public void onInventoryClose(InventoryCloseEvent event) {
-        Player player = (Player) event.getPlayer();
-        cleanupPlayerMenu(player.getUniqueId());
+        closeMenuState(event.getInventory());
+    }
+
+    /**
+     * 玩家離線時確保選單狀態被清理
+     */
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        closeMenuState(event.getPlayer().getOpenInventory().getTopInventory());
+    }
+
+    /**
+     * 玩家被踢出時確保選單狀態被清理
+     */
+    @EventHandler
+    public void onPlayerKick(PlayerKickEvent event) {
+        closeMenuState(event.getPlayer().getOpenInventory().getTopInventory());
     }
     
     /**
-     * 清理玩家選單狀態
+     * 清理選單狀態
      * SRP: 專門負責選單資源的清理
      */
-    private void cleanupPlayerMenu(UUID playerId) {
-        openMenus.remove(playerId);
-        menuTags.remove(playerId);
+    private void closeMenuState(Inventory inventory) {
+        if (inventory.getHolder(false) instanceof TagMenuHolder holder) {
+            holder.close();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,129 @@
+package dev.doeshing.koukeNekoNametag.core.tag;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 標籤選單的容器持有者 (選單狀態)
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責保存單一選單的標籤清單、頁碼與格子對應
+ *
+ * 選單狀態直接掛在容器上，點選事件只需檢查持有者型別即可辨識，
+ * 不需要全域的玩家映射；容器被回收時狀態也一併回收。只能在主執行緒使用。
+ */
+final class TagMenuHolder implements InventoryHolder {
+
+    private final UUID viewerId;
+    private final List<Tag> tags;
+    private final boolean admin;
+    private Inventory inventory;
+    private Tag[] slotTags;    // 目前頁面: 格子 -> 標籤
+    private int itemSlots;     // 可放標籤的格數 (最後一列保留給控制按鈕)
+    private int pages;
+    private int page;
+    private boolean closed;
+
+    TagMenuHolder(UUID viewerId, List<Tag> tags, boolean admin) {
+        this.viewerId = viewerId;
+        this.tags = tags;
+        this.admin = admin;
+    }
+
+    /**
+     * 綁定建立好的容器，並依容器大小計算分頁
+     */
+    void attach(Inventory inventory) {
+        this.inventory = inventory;
+        this.itemSlots = inventory.getSize() - 9;
+        this.pages = Math.max(1, (tags.size() + itemSlots - 1) / itemSlots);
+        this.slotTags = new Tag[itemSlots];
+    }
+
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+
+    UUID getViewerId() {
+        return viewerId;
+    }
+
+    List<Tag> getTags() {
+        return tags;
+    }
+
+    boolean isAdmin() {
+        return admin;
+    }
+
+    int getItemSlots() {
+        return itemSlots;
+    }
+
+    int getPage() {
+        return page;
+    }
+
+    int getPages() {
+        return pages;
+    }
+
+    void setPage(int page) {
+        this.page = page;
+    }
+
+    boolean hasPreviousPage() {
+        return page > 0;
+    }
+
+    boolean hasNextPage() {
+        return page < pages - 1;
+    }
+
+    int getPreviousSlot() {
+        return inventory.getSize() - 9;
+    }
+
+    int getNextSlot() {
+        return inventory.getSize() - 2;
+    }
+
+    int getRemoveSlot() {
+        return inventory.getSize() - 1;
+    }
+
+    /**
+     * 記錄目前頁面格子對應的標籤
+     */
+    void setSlotTag(int slot, Tag tag) {
+        slotTags[slot] = tag;
+    }
+
+    /**
+     * 獲取格子上的標籤
+     * @return 標籤，如果格子為空、超出範圍或選單已關閉則為 null
+     */
+    Tag getSlotTag(int slot) {
+        if (closed || slot < 0 || slot >= slotTags.length) {
+            return null;
+        }
+        return slotTags[slot];
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 關閉選單狀態並釋放標籤參考
+     * 關閉後的點選一律忽略
+     */
+    void close() {
+        closed = true;
+        slotTags = new Tag[0];
+    }
+}
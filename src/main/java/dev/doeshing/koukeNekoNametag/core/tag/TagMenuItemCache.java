@@ -0,0 +1,146 @@
+package dev.doeshing.koukeNekoNametag.core.tag;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.MessageManager;
+import dev.doeshing.koukeNekoNametag.core.lang.Placeholders;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.*;
+
+/**
+ * 標籤選單物品原型快取
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 專門負責建立與保存選單物品原型
+ *
+ * 每個標籤各保存一般玩家與管理員兩種原型，開啟選單時只需要複製原型。
+ * 目錄版本變更時只丟棄已刪除或內容被修改的標籤原型，其餘原型繼續沿用；
+ * 語言或設定重新載入時清除全部原型。只能在主執行緒使用。
+ */
+public class TagMenuItemCache {
+
+    private final KoukeNekoNametag plugin;
+    private final Map<String, Prototypes> prototypes = new HashMap<>(); // 標籤ID -> 原型
+    private long catalogVersion = -1L;
+    private ItemStack removeButton;
+
+    /**
+     * 單一標籤的物品原型
+     */
+    private static final class Prototypes {
+        private final Tag tag;
+        private final ItemStack normal;
+        private final ItemStack admin;
+
+        private Prototypes(Tag tag, ItemStack normal, ItemStack admin) {
+            this.tag = tag;
+            this.normal = normal;
+            this.admin = admin;
+        }
+    }
+
+    public TagMenuItemCache(KoukeNekoNametag plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * 獲取標籤的選單物品
+     *
+     * @param catalog 目前的目錄快照
+     * @param tag 標籤
+     * @param admin 是否為管理員版本 (顯示權限節點)
+     * @return 原型的複本
+     */
+    public ItemStack getTagItem(TagCatalog catalog, Tag tag, boolean admin) {
+        syncWith(catalog);
+
+        Prototypes entry = prototypes.get(tag.getId());
+        if (entry == null || !entry.tag.equals(tag)) {
+            entry = buildPrototypes(tag);
+            prototypes.put(tag.getId(), entry);
+        }
+        return (admin ? entry.admin : entry.normal).clone();
+    }
+
+    /**
+     * 獲取移除標籤按鈕
+     * @return 原型的複本
+     */
+    public ItemStack getRemoveButton() {
+        if (removeButton == null) {
+            removeButton = createItem(Material.BARRIER, getMessage("menu.remove_button"), null);
+        }
+        return removeButton.clone();
+    }
+
+    /**
+     * 建立翻頁按鈕
+     * 按鈕上帶有頁碼，每次翻頁只建立一到兩個，因此不保存原型
+     *
+     * @param next true 為下一頁按鈕，false 為上一頁按鈕
+     * @param targetPage 點選後前往的頁碼 (從 1 開始)
+     * @param pages 總頁數
+     */
+    public ItemStack createPageButton(boolean next, int targetPage, int pages) {
+        String name = plugin.getMessageManager().getMessage(next ? "menu.next_page" : "menu.previous_page",
+                Placeholders.of("page", String.valueOf(targetPage), "pages", String.valueOf(pages)));
+        return createItem(Material.ARROW, name, null);
+    }
+
+    /**
+     * 清除所有原型
+     * 語言或設定重新載入時呼叫
+     */
+    public void invalidateAll() {
+        prototypes.clear();
+        catalogVersion = -1L;
+        removeButton = null;
+    }
+
+    /**
+     * 依目錄版本增量更新: 只移除已刪除或內容改變的標籤原型
+     */
+    private void syncWith(TagCatalog catalog) {
+        if (catalog.getVersion() == catalogVersion) {
+            return;
+        }
+        prototypes.entrySet().removeIf(entry -> !entry.getValue().tag.equals(catalog.get(entry.getKey())));
+        catalogVersion = catalog.getVersion();
+    }
+
+    /**
+     * 建立單一標籤的一般與管理員原型
+     */
+    private Prototypes buildPrototypes(Tag tag) {
+        MessageManager messageManager = plugin.getMessageManager();
+        List<Component> lore = new ArrayList<>();
+        lore.add(messageManager.format(getMessage("menu.select_tag")));
+        lore.add(messageManager.format(messageManager.getMessage("menu.tag_id", Placeholders.of("id", tag.getId()))));
+        ItemStack normal = createItem(Material.NAME_TAG, tag.getDisplay(), lore);
+
+        List<Component> adminLore = new ArrayList<>(lore);
+        adminLore.add(messageManager.format(messageManager.getMessage("menu.tag_permission",
+                Placeholders.of("permission", tag.getPermission()))));
+        ItemStack admin = createItem(Material.NAME_TAG, tag.getDisplay(), adminLore);
+
+        return new Prototypes(tag, normal, admin);
+    }
+
+    private ItemStack createItem(Material material, String displayName, List<Component> lore) {
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+        meta.displayName(plugin.getMessageManager().format(displayName));
+        if (lore != null) {
+            meta.lore(lore);
+        }
+        item.setItemMeta(meta);
+        return item;
+    }
+
+    private String getMessage(String path) {
+        return plugin.getMessageManager().getMessage(path);
+    }
+}
@@ -2,6 +2,10 @@ package dev.doeshing.koukeNekoNametag.core.tag;
 
 import org.bukkit.entity.Player;
 
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 標籤權限操作服務介面
  * 
@@ -35,4 +39,29 @@ public interface TagPermissionService {
      * @return 是否有權限
      */
     boolean hasPermission(Player player, Tag tag);
-}
\ No newline at end of file
+    
+    /**
+     * 批次修改多位玩家的標籤權限
+     * 以UUID識別玩家，可包含離線玩家。只能在主執行緒呼叫，實際儲存可能非同步完成。
+     * @param playerIds 目標玩家
+     * @param tag 標籤
+     * @param grant true 為給予，false 為移除
+     * @return 完成時回傳成功修改的玩家數量
+     */
+    CompletableFuture<Integer> applyPermissionBatch(Collection<UUID> playerIds, Tag tag, boolean grant);
+    
+    /**
+     * 移除所有玩家 (包含離線玩家) 與群組的此標籤權限
+     * 刪除標籤時使用。只能在主執行緒呼叫，實際儲存可能非同步完成。
+     * @param tag 標籤
+     * @return 完成時回傳被移除權限的玩家數量，無法得知時為 -1
+     */
+    CompletableFuture<Integer> revokeFromAll(Tag tag);
+    
+    /**
+     * 是否可以直接修改離線玩家的權限
+     * 不支援時，離線玩家的操作會排入待處理佇列，等玩家加入後再套用
+     * @return 是否支援離線玩家
+     */
+    boolean supportsOfflineTargets();
+}
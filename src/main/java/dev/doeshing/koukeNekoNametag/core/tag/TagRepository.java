@@ -13,11 +13,19 @@ import java.util.Optional;
 public interface TagRepository {
     
     /**
-     * 載入所有標籤
+     * 從儲存媒介重新載入所有標籤，並發布新的目錄快照
+     * 注意: 此方法會重新解析資料來源，一般讀取請使用 {@link #getCatalog()}
      * @return 所有標籤的集合
      */
     Collection<Tag> loadAllTags();
     
+    /**
+     * 獲取目前的標籤目錄快照
+     * 不會配置新物件，也不會存取儲存媒介
+     * @return 目前發布的不可變快照
+     */
+    TagCatalog getCatalog();
+    
     /**
      * 根據ID查找標籤
      * @param id 標籤ID
@@ -41,6 +49,19 @@ public interface TagRepository {
     
     /**
      * 重新載入標籤資料
+     * 資料無法讀取或格式錯誤時保留目前的標籤
+     * @return 是否成功讀取全部的標籤資料
+     */
+    boolean reload();
+    
+    /**
+     * 獲取資料寫回的統計資訊
+     * @return 寫回延遲與批次大小等統計
+     */
+    PersistenceMetrics getPersistenceMetrics();
+    
+    /**
+     * 關閉儲存庫，並將尚未寫回的修改寫入儲存媒介
      */
-    void reload();
+    void close();
 }
\ No newline at end of file
@@ -0,0 +1,260 @@
+package dev.doeshing.koukeNekoNametag.core.tag;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.util.Transformation;
+import org.joml.AxisAngle4f;
+import org.joml.Vector3f;
+
+import java.util.*;
+
+/**
+ * 基於 TextDisplay 實體的頭頂標籤顯示服務實作
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 專門負責頭頂文字實體的生命週期與可見性
+ * - DIP (依賴反轉原則): 實作TagDisplayService介面
+ * - LSP (里氏替換原則): 可直接取代 CommandTagDisplayService
+ *
+ * 每位玩家騎乘一個 TextDisplay，切換標籤時只更新文字而不重新生成實體。
+ * 文字變更先排入佇列，每 tick 統一寫入一次，讓同一 tick 的所有變更在同一批實體資料封包中送出；
+ * 實體預設對所有人隱藏，再依距離逐一對附近的觀看者顯示。
+ */
+public class TextDisplayTagDisplayService implements TagDisplayService, Listener {
+
+    private final KoukeNekoNametag plugin;
+    private final Map<UUID, Mount> mounts = new HashMap<>();              // 玩家 -> 頭頂實體
+    private final Map<UUID, Component> pendingText = new LinkedHashMap<>(); // 本 tick 待送出的文字
+    private final float offsetY;
+    private final double viewDistance;
+    private final BukkitTask flushTask;
+    private final BukkitTask cullTask;
+
+    /**
+     * 玩家頭頂的文字實體與其觀看者
+     */
+    private static final class Mount {
+        private TextDisplay display;  // 區塊卸載後會被移除，由可見性更新重新生成
+        private final Set<UUID> viewers = new HashSet<>();
+        private String tagId;       // 目前顯示的標籤ID，沒有標籤時為 null
+        private String tagDisplay;  // 目前顯示的標籤格式
+
+        private Mount(TextDisplay display) {
+            this.display = display;
+        }
+    }
+
+    public TextDisplayTagDisplayService(KoukeNekoNametag plugin) {
+        this.plugin = plugin;
+        this.offsetY = (float) plugin.getConfig().getDouble("display.text_display.offset_y", 0.6);
+        this.viewDistance = plugin.getConfig().getDouble("display.text_display.view_distance", 32.0);
+        long cullInterval = Math.max(1L, plugin.getConfig().getLong("display.text_display.cull_interval_ticks", 10L));
+
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+        this.flushTask = Bukkit.getScheduler().runTaskTimer(plugin, this::flushPendingText, 1L, 1L);
+        this.cullTask = Bukkit.getScheduler().runTaskTimer(plugin, this::updateVisibility, cullInterval, cullInterval);
+    }
+
+    @Override
+    public boolean setActiveTag(Player player, Tag tag) {
+        if (tag == null) {
+            return false;
+        }
+
+        Mount mount = mounts.get(player.getUniqueId());
+        if (mount == null || !mount.display.isValid()) {
+            mount = new Mount(spawnDisplay(player));
+            mounts.put(player.getUniqueId(), mount);
+        }
+
+        // 重複使用既有實體，只排入文字變更
+        mount.tagId = tag.getId();
+        mount.tagDisplay = tag.getDisplay();
+        pendingText.put(player.getUniqueId(), plugin.getMessageManager().format(tag.getDisplay()));
+        return true;
+    }
+
+    @Override
+    public boolean removeActiveTag(Player player) {
+        Mount mount = mounts.get(player.getUniqueId());
+        if (mount != null) {
+            // 保留實體供下次使用，清空文字後由可見性更新對所有人隱藏
+            mount.tagId = null;
+            mount.tagDisplay = null;
+            pendingText.put(player.getUniqueId(), Component.empty());
+        }
+        return true;
+    }
+
+    @Override
+    public void onCatalogChanged(TagCatalog catalog) {
+        for (Map.Entry<UUID, Mount> entry : mounts.entrySet()) {
+            Mount mount = entry.getValue();
+            if (mount.tagId == null) {
+                continue;
+            }
+
+            // 已刪除的標籤清空文字 (與 removeActiveTag 相同)，顯示格式被修改的標籤更新文字
+            Tag tag = catalog.get(mount.tagId);
+            if (tag == null) {
+                mount.tagId = null;
+                mount.tagDisplay = null;
+                pendingText.put(entry.getKey(), Component.empty());
+            } else if (!tag.getDisplay().equals(mount.tagDisplay)) {
+                mount.tagDisplay = tag.getDisplay();
+                pendingText.put(entry.getKey(), plugin.getMessageManager().format(tag.getDisplay()));
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        flushTask.cancel();
+        cullTask.cancel();
+        HandlerList.unregisterAll(this);
+        for (Mount mount : mounts.values()) {
+            mount.display.remove();
+        }
+        mounts.clear();
+        pendingText.clear();
+    }
+
+    /**
+     * 生成玩家頭頂的文字實體
+     * 實體不會被儲存到世界中，且預設對所有人隱藏
+     */
+    private TextDisplay spawnDisplay(Player player) {
+        TextDisplay display = player.getWorld().spawn(player.getLocation(), TextDisplay.class, entity -> {
+            entity.setPersistent(false);
+            entity.setVisibleByDefault(false);
+            entity.setBillboard(Display.Billboard.CENTER);
+            entity.setDefaultBackground(false);
+            entity.setTransformation(new Transformation(
+                    new Vector3f(0f, offsetY, 0f),
+                    new AxisAngle4f(),
+                    new Vector3f(1f, 1f, 1f),
+                    new AxisAngle4f()));
+            entity.text(Component.empty());
+        });
+        player.addPassenger(display);
+        return display;
+    }
+
+    /**
+     * 將本 tick 累積的文字變更一次寫入實體
+     */
+    private void flushPendingText() {
+        if (pendingText.isEmpty()) {
+            return;
+        }
+
+        for (Map.Entry<UUID, Component> entry : pendingText.entrySet()) {
+            Mount mount = mounts.get(entry.getKey());
+            if (mount != null && mount.display.isValid()) {
+                mount.display.text(entry.getValue());
+            }
+        }
+        pendingText.clear();
+    }
+
+    /**
+     * 依距離更新每個文字實體的觀看者，並重新騎乘被傳送或死亡打斷的實體
+     */
+    private void updateVisibility() {
+        for (Map.Entry<UUID, Mount> entry : mounts.entrySet()) {
+            Player owner = Bukkit.getPlayer(entry.getKey());
+            Mount mount = entry.getValue();
+            if (owner == null) {
+                continue;
+            }
+            if (!mount.display.isValid()) {
+                // 實體不會被儲存，所在區塊卸載時 (例如玩家傳送或切換世界) 會被移除
+                if (mount.tagId == null) {
+                    continue;
+                }
+                respawnDisplay(owner, mount);
+            }
+
+            remountIfNeeded(owner, mount.display);
+
+            Set<UUID> visibleTo = new HashSet<>();
+            if (mount.tagId != null && !owner.isDead()) {
+                Location location = owner.getLocation();
+                for (Player viewer : location.getNearbyPlayers(viewDistance)) {
+                    if (viewer != owner && viewer.canSee(owner)) {
+                        visibleTo.add(viewer.getUniqueId());
+                    }
+                }
+            }
+
+            // 只對可見性有變化的觀看者送出顯示/隱藏
+            Iterator<UUID> iterator = mount.viewers.iterator();
+            while (iterator.hasNext()) {
+                UUID viewerId = iterator.next();
+                if (!visibleTo.contains(viewerId)) {
+                    Player viewer = Bukkit.getPlayer(viewerId);
+                    if (viewer != null) {
+                        viewer.hideEntity(plugin, mount.display);
+                    }
+                    iterator.remove();
+                }
+            }
+            for (UUID viewerId : visibleTo) {
+                if (mount.viewers.add(viewerId)) {
+                    Player viewer = Bukkit.getPlayer(viewerId);
+                    if (viewer != null) {
+                        viewer.showEntity(plugin, mount.display);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 為已被移除的實體生成替代品
+     * 舊實體的觀看者已失效，新實體的文字在下一次寫入時補上
+     */
+    private void respawnDisplay(Player owner, Mount mount) {
+        mount.display = spawnDisplay(owner);
+        mount.viewers.clear();
+        pendingText.put(owner.getUniqueId(), plugin.getMessageManager().format(mount.tagDisplay));
+    }
+
+    /**
+     * 傳送或重生後乘客會被卸下，需要把實體帶回玩家身上
+     */
+    private void remountIfNeeded(Player owner, TextDisplay display) {
+        if (owner.isDead() || owner.getPassengers().contains(display)) {
+            return;
+        }
+        display.teleport(owner.getLocation());
+        owner.addPassenger(display);
+    }
+
+    /**
+     * 玩家離線時移除其文字實體，並從其他實體的觀看者中移除
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        UUID playerId = event.getPlayer().getUniqueId();
+        Mount mount = mounts.remove(playerId);
+        if (mount != null) {
+            mount.display.remove();
+        }
+        pendingText.remove(playerId);
+        for (Mount other : mounts.values()) {
+            other.viewers.remove(playerId);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package dev.doeshing.koukeNekoNametag.core.tag;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 延遲寫回 (write-behind) 排程器
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責決定何時寫回，實際的寫入動作由儲存庫提供
+ *
+ * 修改只會標記為「待寫回」，背景執行緒每個間隔最多執行一次寫回，
+ * 因此同一間隔內的大量修改會被合併成單一次寫入。
+ */
+final class WriteBehindFlusher {
+
+    /**
+     * 實際的寫回動作，只會在背景寫入執行緒上執行
+     */
+    @FunctionalInterface
+    interface FlushAction {
+        void flush() throws Exception;
+    }
+
+    private final Logger logger;
+    private final FlushAction action;
+    private final PersistenceMetrics metrics;
+    private final ScheduledExecutorService executor;
+    private final AtomicInteger pending = new AtomicInteger(); // 尚未寫回的修改數量
+
+    /**
+     * 建立延遲寫回排程器
+     *
+     * @param threadName 背景執行緒名稱
+     * @param logger 錯誤記錄用的日誌
+     * @param intervalMillis 寫回間隔 (毫秒)
+     * @param metrics 統計資訊
+     * @param action 實際的寫回動作
+     */
+    WriteBehindFlusher(String threadName, Logger logger, long intervalMillis,
+                       PersistenceMetrics metrics, FlushAction action) {
+        this.logger = logger;
+        this.action = action;
+        this.metrics = metrics;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(50L, intervalMillis);
+        executor.scheduleWithFixedDelay(this::flushIfDirty, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 標記有新的修改需要寫回
+     * 必須在記憶體內的資料更新完成之後呼叫
+     */
+    void markDirty() {
+        pending.incrementAndGet();
+        metrics.recordMutation();
+    }
+
+    /**
+     * 獲取尚未寫回的修改數量
+     */
+    int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * 立即寫回並等待完成
+     * 用於重新載入前，避免尚未寫回的修改被檔案內容覆蓋
+     *
+     * @param timeoutMillis 等待上限 (毫秒)
+     * @return 是否在時間內完成
+     */
+    boolean flushNow(long timeoutMillis) {
+        if (pending.get() == 0) {
+            return true;
+        }
+        try {
+            executor.submit(this::flushIfDirty).get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return pending.get() == 0;
+        } catch (RejectedExecutionException | ExecutionException | TimeoutException e) {
+            logger.warning("等待標籤資料寫回逾時或失敗: " + e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 停止背景執行緒，並在時間上限內完成最後一次寫回
+     *
+     * @param timeoutMillis 等待上限 (毫秒)
+     */
+    void shutdown(long timeoutMillis) {
+        try {
+            executor.submit(this::flushIfDirty);
+        } catch (RejectedExecutionException ignored) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                logger.warning("最後一次標籤資料寫回未在 " + timeoutMillis + " ms 內完成，仍有 "
+                        + pending.get() + " 筆修改未寫入");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 若有待寫回的修改，則合併成一次寫入
+     * 只在背景寫入執行緒上執行
+     */
+    private void flushIfDirty() {
+        int batchSize = pending.getAndSet(0);
+        if (batchSize == 0) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            action.flush();
+            metrics.recordFlush(batchSize, System.nanoTime() - start);
+        } catch (Exception e) {
+            // 寫入失敗時保留待寫回狀態，下一個間隔再重試
+            pending.addAndGet(batchSize);
+            metrics.recordFailure();
+            logger.log(Level.SEVERE, "標籤資料寫回失敗: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package dev.doeshing.koukeNekoNametag.core.template;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 預先編譯的指令樣板 (不可變值物件)
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責把指令字串切成文字片段與佔位符欄位
+ * - 不變性 (Immutability): 編譯後不再修改，可安全共享
+ *
+ * 樣板在載入時切成「文字片段 + 已知欄位」交錯的陣列，
+ * 產生指令時只需依序附加到同一個 StringBuilder，不再做多次 String.replace。
+ */
+public final class CommandTemplate {
+
+    /**
+     * 指令樣板支援的佔位符
+     */
+    public enum Slot {
+        PLAYER("{player}"),
+        TAG("{tag}"),
+        DISPLAY("{display}");
+
+        private final String token;
+
+        Slot(String token) {
+            this.token = token;
+        }
+
+        public String getToken() {
+            return token;
+        }
+    }
+
+    private static final Slot[] SLOTS = Slot.values();
+
+    private final String source;     // 原始樣板
+    private final String[] literals; // 文字片段，長度為 slots.length + 1
+    private final Slot[] slots;      // 片段之間的佔位符
+
+    private CommandTemplate(String source, String[] literals, Slot[] slots) {
+        this.source = source;
+        this.literals = literals;
+        this.slots = slots;
+    }
+
+    /**
+     * 編譯指令樣板
+     * 無法識別的大括號會保留為一般文字
+     *
+     * @param source 原始指令字串
+     * @return 編譯後的樣板
+     */
+    public static CommandTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<Slot> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        int index = 0;
+        while (index < source.length()) {
+            Slot slot = source.charAt(index) == '{' ? matchSlot(source, index) : null;
+            if (slot == null) {
+                literal.append(source.charAt(index));
+                index++;
+                continue;
+            }
+            literals.add(literal.toString());
+            slots.add(slot);
+            literal.setLength(0);
+            index += slot.getToken().length();
+        }
+        literals.add(literal.toString());
+
+        return new CommandTemplate(source, literals.toArray(new String[0]), slots.toArray(new Slot[0]));
+    }
+
+    private static Slot matchSlot(String source, int index) {
+        for (Slot slot : SLOTS) {
+            if (source.startsWith(slot.getToken(), index)) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 以單次走訪產生指令
+     * 值為 null 的欄位會保留原本的佔位符文字
+     *
+     * @param out 輸出緩衝區 (會先清空)
+     * @param player {player} 的值
+     * @param tag {tag} 的值
+     * @param display {display} 的值
+     * @return 產生的指令
+     */
+    public String render(StringBuilder out, String player, String tag, String display) {
+        out.setLength(0);
+        out.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            String value = valueOf(slots[i], player, tag, display);
+            out.append(value != null ? value : slots[i].getToken());
+            out.append(literals[i + 1]);
+        }
+        return out.toString();
+    }
+
+    private static String valueOf(Slot slot, String player, String tag, String display) {
+        switch (slot) {
+            case PLAYER:
+                return player;
+            case TAG:
+                return tag;
+            case DISPLAY:
+                return display;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 獲取原始樣板字串
+     */
+    public String getSource() {
+        return source;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
@@ -0,0 +1,59 @@
+package dev.doeshing.koukeNekoNametag.core.template;
+
+import dev.doeshing.koukeNekoNametag.KoukeNekoNametag;
+import dev.doeshing.koukeNekoNametag.core.RuntimeBundle;
+import org.bukkit.Bukkit;
+
+import java.util.List;
+
+/**
+ * 指令樣板註冊表
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 負責持有目前的樣板組並以其產生、執行指令
+ *
+ * 樣板組屬於 {@link RuntimeBundle}，在載入與重新載入時隨設定組一起編譯並以單一參考寫入替換，
+ * 執行中的讀取端只會看到完整的舊樣板組或完整的新樣板組。
+ */
+public class CommandTemplateRegistry {
+
+    private final KoukeNekoNametag plugin;
+    private final StringBuilder buffer = new StringBuilder(64); // 主執行緒重複使用的輸出緩衝區
+
+    public CommandTemplateRegistry(KoukeNekoNametag plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * 獲取目前的樣板組
+     */
+    public CommandTemplateSet getTemplates() {
+        return plugin.getRuntime().getCommandTemplates();
+    }
+
+    /**
+     * 產生並以控制台身分執行一組指令
+     * 只能在主執行緒呼叫
+     *
+     * @param commands 要執行的樣板
+     * @param logLabel 日誌前綴
+     * @param player {player} 的值
+     * @param tag {tag} 的值
+     * @param display {display} 的值
+     * @return 是否有指令且全部都執行成功
+     */
+    public boolean dispatch(List<CommandTemplate> commands, String logLabel, String player, String tag, String display) {
+        boolean logCommands = getTemplates().isLogCommands();
+        boolean success = !commands.isEmpty();
+        for (CommandTemplate template : commands) {
+            String cmd = template.render(buffer, player, tag, display);
+
+            if (logCommands) {
+                plugin.getLogger().info(logLabel + cmd);
+            }
+
+            success &= Bukkit.dispatchCommand(Bukkit.getConsoleSender(), cmd);
+        }
+        return success;
+    }
+}
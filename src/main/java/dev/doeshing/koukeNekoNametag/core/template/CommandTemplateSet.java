@@ -0,0 +1,75 @@
+package dev.doeshing.koukeNekoNametag.core.template;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 一次載入所得到的全部指令樣板 (不可變)
+ *
+ * 遵循SOLID原則：
+ * - SRP (單一責任原則): 只負責保存 command.* 區段編譯後的結果
+ * - 不變性 (Immutability): 重新載入時整組替換，而不是逐項修改
+ */
+public final class CommandTemplateSet {
+
+    private final List<CommandTemplate> setTag;
+    private final List<CommandTemplate> remove;
+    private final List<CommandTemplate> addPermission;
+    private final List<CommandTemplate> removePermission;
+    private final List<CommandTemplate> removePermissionAll;
+    private final boolean logCommands;
+
+    private CommandTemplateSet(ConfigurationSection config) {
+        this.setTag = compileList(config, "command.settag");
+        this.remove = compileList(config, "command.remove");
+        this.addPermission = compileList(config, "command.add_permission");
+        this.removePermission = compileList(config, "command.remove_permission");
+        this.removePermissionAll = compileList(config, "command.remove_permission_all");
+        this.logCommands = config.getBoolean("debug.log_commands", true);
+    }
+
+    /**
+     * 從設定檔編譯所有指令樣板
+     *
+     * @param config 外掛設定
+     * @return 編譯後的樣板組
+     */
+    public static CommandTemplateSet compile(ConfigurationSection config) {
+        return new CommandTemplateSet(config);
+    }
+
+    private static List<CommandTemplate> compileList(ConfigurationSection config, String path) {
+        List<CommandTemplate> templates = new ArrayList<>();
+        for (String source : config.getStringList(path)) {
+            templates.add(CommandTemplate.compile(source));
+        }
+        return Collections.unmodifiableList(templates);
+    }
+
+    public List<CommandTemplate> getSetTag() {
+        return setTag;
+    }
+
+    public List<CommandTemplate> getRemove() {
+        return remove;
+    }
+
+    public List<CommandTemplate> getAddPermission() {
+        return addPermission;
+    }
+
+    public List<CommandTemplate> getRemovePermission() {
+        return removePermission;
+    }
+
+    public List<CommandTemplate> getRemovePermissionAll() {
+        return removePermissionAll;
+    }
+
+    public boolean isLogCommands() {
+        return logCommands;
+    }
+}